@@ -0,0 +1,267 @@
+package com.magicbus.config;
+
+import com.magicbus.service.idempotency.IdempotencyEntry;
+import com.magicbus.service.idempotency.IdempotencyStore;
+import com.magicbus.service.idempotency.StoredResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key support for the signup and screening mutation endpoints.
+ *
+ * The first request with a given key claims it in the store (shared by all
+ * nodes with idempotency.store=database) before running; if it succeeds
+ * (2xx) its response is stored and retries with the same key, method, path
+ * and body get it back without reaching the controller. A retry that
+ * arrives while the original is still running gets 409, and one that reuses
+ * the key with a different body gets 422. Other responses are not stored -
+ * the 400s include transient failures - so those can be retried.
+ *
+ * Runs ahead of SignupAdmissionFilter so replays don't count against the
+ * OTP rate limits. Outcomes are published as idempotency.requests{outcome}.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String IN_PROGRESS_BODY =
+        "{\"success\":false,\"message\":\"A request with this Idempotency-Key is still being processed\"}";
+    private static final String KEY_REUSED_BODY =
+        "{\"success\":false,\"message\":\"Idempotency-Key was already used with a different request body\"}";
+    private static final String INVALID_KEY_BODY =
+        "{\"success\":false,\"message\":\"Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters\"}";
+
+    private final IdempotencyStore store;
+    private final long ttlMinutes;
+    private final long claimTimeoutSeconds;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter conflicts;
+    private final Counter mismatches;
+
+    public IdempotencyFilter(
+            IdempotencyStore store,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${idempotency.claim-timeout-seconds:300}") long claimTimeoutSeconds) {
+        this.store = store;
+        this.ttlMinutes = ttlMinutes;
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.conflicts = counter(meterRegistry, "in_progress");
+        this.mismatches = counter(meterRegistry, "body_mismatch");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"POST".equalsIgnoreCase(method) && !"PUT".equalsIgnoreCase(method)) {
+            return true;
+        }
+        String header = request.getHeader(HEADER);
+        if (header == null || header.isBlank()) {
+            return true;
+        }
+        String path = pathOf(request);
+        return !path.startsWith("/signup/") && !path.startsWith("/screening/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER).trim();
+        if (header.length() > MAX_KEY_LENGTH) {
+            writeJson(response, HttpStatus.BAD_REQUEST, INVALID_KEY_BODY);
+            return;
+        }
+        String key = keyOf(request, header);
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = sha256(cachedRequest.body);
+
+        Optional<IdempotencyEntry> existing =
+            store.claim(key, requestHash, LocalDateTime.now().plusSeconds(claimTimeoutSeconds));
+        if (existing.isPresent()) {
+            IdempotencyEntry entry = existing.get();
+            if (!requestHash.equals(entry.requestHash())) {
+                mismatches.increment();
+                writeJson(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_REUSED_BODY);
+            } else if (entry.isPending()) {
+                conflicts.increment();
+                writeJson(response, HttpStatus.CONFLICT, IN_PROGRESS_BODY);
+            } else {
+                hits.increment();
+                replay(entry.response(), response);
+            }
+            return;
+        }
+        misses.increment();
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(cachedRequest, wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(key, new StoredResponse(
+                    status,
+                    wrapper.getContentType(),
+                    new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8),
+                    LocalDateTime.now().plusMinutes(ttlMinutes)));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            byte[] body = stored.body().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static void writeJson(HttpServletResponse response, HttpStatus status, String body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(body);
+    }
+
+    /**
+     * Keys are scoped to method and path (including the query string), so the
+     * same client key can't replay a response from a different endpoint. The
+     * store gets the SHA-256 of that (64 hex chars), however long the URL is
+     */
+    private static String keyOf(HttpServletRequest request, String header) {
+        String query = request.getQueryString();
+        String scoped = request.getMethod() + " " + pathOf(request) + (query != null ? "?" + query : "") + " " + header;
+        return sha256(scoped.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the (small, JSON) request body up front so it can be hashed
+     * before the handler runs, then serves it to the handler from memory
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The whole body is already in memory, so it is available at once
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("idempotency.requests")
+            .description("Requests carrying an Idempotency-Key, by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
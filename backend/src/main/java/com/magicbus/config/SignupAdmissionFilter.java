@@ -0,0 +1,69 @@
+package com.magicbus.config;
+
+import com.magicbus.service.SignupRateLimitService;
+import com.magicbus.util.ClientAddress;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admission control for the OTP endpoints.
+ *
+ * Runs before the controller (and before any transaction or DB connection),
+ * applying the global concurrency cap and the per-IP limit. Rejected requests
+ * get 429 with a Retry-After header.
+ */
+@Component
+@RequiredArgsConstructor
+public class SignupAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String REJECTED_BODY =
+        "{\"success\":false,\"message\":\"Too many requests - please try again shortly\"}";
+
+    private final SignupRateLimitService rateLimitService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return endpointOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String endpoint = endpointOf(request);
+        if (!rateLimitService.tryAdmit(endpoint, ClientAddress.of(request))) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", "5");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(REJECTED_BODY);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            rateLimitService.release();
+        }
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI();
+        if (path.endsWith("/signup/send-otp")) {
+            return SignupRateLimitService.SEND_OTP;
+        }
+        if (path.endsWith("/signup/verify-otp")) {
+            return SignupRateLimitService.VERIFY_OTP;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.magicbus.config;
+
+import com.magicbus.util.SingleFlight;
+import com.magicbus.util.SingleFlightInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Proxies beans with {@link SingleFlight} methods. The advisor goes in front
+ * of any existing ones (e.g. @Transactional), so calls that join an in-flight
+ * execution never open a transaction.
+ */
+@Component
+public class SingleFlightPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private static final long serialVersionUID = 1L;
+
+    public SingleFlightPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.advisor = new DefaultPointcutAdvisor(
+            AnnotationMatchingPointcut.forMethodAnnotation(SingleFlight.class),
+            new SingleFlightInterceptor(meterRegistry));
+        this.beforeExistingAdvisors = true;
+        setProxyTargetClass(true);
+    }
+}
@@ -5,9 +5,14 @@ import com.magicbus.dto.OnboardingResponseDTO;
 import com.magicbus.dto.SignupRequestDTO;
 import com.magicbus.entity.Candidate;
 import com.magicbus.repository.CandidateRepository;
+import com.magicbus.dto.BulkOnboardingResultDTO;
 import com.magicbus.service.OnboardingService;
+import com.magicbus.service.bulk.BulkOnboardingService;
+import com.magicbus.service.bulk.BulkRecordReader;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,12 +28,15 @@ import java.util.Optional;
 public class CandidateController {
 
     private final OnboardingService onboardingService;
+    private final BulkOnboardingService bulkOnboardingService;
     private final CandidateRepository candidateRepository;
 
     public CandidateController(
             OnboardingService onboardingService,
+            BulkOnboardingService bulkOnboardingService,
             CandidateRepository candidateRepository) {
         this.onboardingService = onboardingService;
+        this.bulkOnboardingService = bulkOnboardingService;
         this.candidateRepository = candidateRepository;
     }
 
@@ -88,6 +96,42 @@ public class CandidateController {
         }
     }
 
+    /**
+     * Bulk onboarding for field drives.
+     * Body is a JSON array (application/json), one JSON object per line
+     * (application/x-ndjson) or CSV with a header row (text/csv); it is
+     * streamed, never loaded whole. Returns per-record errors.
+     */
+    @PostMapping(value = "/onboard/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<?> onboardCandidatesBulk(HttpServletRequest request) {
+        try {
+            BulkRecordReader.Format format = formatOf(request.getContentType());
+            log.info("Received bulk onboarding upload ({})", format);
+
+            BulkOnboardingResultDTO result = bulkOnboardingService.importCandidates(request.getInputStream(), format);
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            log.error("Error in bulk onboarding: {}", e.getMessage());
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    private static BulkRecordReader.Format formatOf(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)) {
+            return BulkRecordReader.Format.NDJSON;
+        }
+        if ("csv".equalsIgnoreCase(mediaType.getSubtype())) {
+            return BulkRecordReader.Format.CSV;
+        }
+        return BulkRecordReader.Format.JSON;
+    }
+
     /**
      * Get all candidates
      */
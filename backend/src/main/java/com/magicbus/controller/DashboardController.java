@@ -1,7 +1,9 @@
 package com.magicbus.controller;
 
+import com.magicbus.dto.CohortAnalyticsDTO;
 import com.magicbus.dto.DashboardDTO;
 import com.magicbus.service.DashboardService;
+import com.magicbus.service.dashboard.CohortAnalyticsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final CohortAnalyticsService cohortAnalyticsService;
 
     @GetMapping("/stats")
     public ResponseEntity<DashboardDTO> getDashboardStats(
@@ -22,9 +25,32 @@ public class DashboardController {
         return ResponseEntity.ok(dashboardService.getDashboardStats(year));
     }
     
+    /**
+     * Year stats for the logged-in admin's city or state (global for admins without one)
+     */
+    @GetMapping("/stats/region")
+    public ResponseEntity<DashboardDTO> getRegionalDashboardStats(
+            @RequestParam(defaultValue = "2026") int year,
+            @RequestHeader(value = "Authorization", required = false) String authToken) {
+        log.info("Fetching regional dashboard stats for year: {}", year);
+        return ResponseEntity.ok(dashboardService.getRegionalDashboardStats(year, authToken));
+    }
+    
     @GetMapping("/stats/summary")
     public ResponseEntity<DashboardDTO> getDashboardSummary() {
         log.info("Fetching dashboard summary");
         return ResponseEntity.ok(dashboardService.getDashboardSummary());
     }
+
+    /**
+     * Funnels and p50/p90/p99 stage durations per signup month, from..to as
+     * yyyy-MM (default: the last 12 months)
+     */
+    @GetMapping("/cohorts")
+    public ResponseEntity<CohortAnalyticsDTO> getCohortAnalytics(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        log.info("Fetching cohort analytics from {} to {}", from, to);
+        return ResponseEntity.ok(cohortAnalyticsService.getCohortAnalytics(from, to));
+    }
 }
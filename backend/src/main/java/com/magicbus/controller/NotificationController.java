@@ -1,12 +1,18 @@
 package com.magicbus.controller;
 
+import com.magicbus.dto.BulkNotificationRequest;
+import com.magicbus.dto.NotificationPageDTO;
 import com.magicbus.dto.OnboardingAgingNotificationDTO;
 import com.magicbus.entity.OnboardingAgingNotification;
+import com.magicbus.service.NotificationCounterService;
 import com.magicbus.service.OnboardingAgingService;
+import com.magicbus.service.bulk.BulkNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -20,14 +26,17 @@ import java.util.stream.Collectors;
 public class NotificationController {
     
     private final OnboardingAgingService agingService;
+    private final NotificationCounterService counterService;
+    private final BulkNotificationService bulkNotificationService;
     
     /**
-     * Get all active notifications
+     * Get active notifications, a page at a time (most severe and oldest first)
      */
     @GetMapping
-    public ResponseEntity<List<OnboardingAgingNotificationDTO>> getAllNotifications() {
-        List<OnboardingAgingNotification> notifications = agingService.getAllActiveNotifications();
-        return ResponseEntity.ok(convertToDTO(notifications));
+    public ResponseEntity<NotificationPageDTO> getAllNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(toPage(agingService.getActiveNotifications(null, null, cursor, limit)));
     }
     
     /**
@@ -40,21 +49,34 @@ public class NotificationController {
     }
     
     /**
-     * Get notifications by color filter
+     * Live badge counts - a "counts" event (same body as /summary) on connect
+     * and whenever the counts change
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCounts() {
+        return counterService.subscribe();
+    }
+    
+    /**
+     * Get notifications by color filter, a page at a time
      */
     @GetMapping("/by-color/{color}")
-    public ResponseEntity<List<OnboardingAgingNotificationDTO>> getByColor(@PathVariable String color) {
-        List<OnboardingAgingNotification> notifications = agingService.getNotificationsByColor(color.toUpperCase());
-        return ResponseEntity.ok(convertToDTO(notifications));
+    public ResponseEntity<NotificationPageDTO> getByColor(
+            @PathVariable String color,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(toPage(agingService.getActiveNotifications(color.toUpperCase(), null, cursor, limit)));
     }
     
     /**
-     * Get notifications by onboarding status
+     * Get notifications by onboarding status, a page at a time
      */
     @GetMapping("/by-status/{status}")
-    public ResponseEntity<List<OnboardingAgingNotificationDTO>> getByStatus(@PathVariable String status) {
-        List<OnboardingAgingNotification> notifications = agingService.getNotificationsByStatus(status.toUpperCase());
-        return ResponseEntity.ok(convertToDTO(notifications));
+    public ResponseEntity<NotificationPageDTO> getByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(toPage(agingService.getActiveNotifications(null, status.toUpperCase(), cursor, limit)));
     }
     
     /**
@@ -83,6 +105,25 @@ public class NotificationController {
         return ResponseEntity.ok(Map.of("message", "Notification dismissed", "updated", updated));
     }
     
+    /**
+     * Dismiss many notifications at once - by ids, by candidate, or by
+     * color / status / age range
+     */
+    @PutMapping("/bulk/dismiss")
+    public ResponseEntity<Map<String, Object>> bulkDismiss(@RequestBody BulkNotificationRequest request) {
+        int updated = bulkNotificationService.dismiss(request);
+        return ResponseEntity.ok(Map.of("message", "Notifications dismissed", "updated", updated));
+    }
+    
+    /**
+     * Mark many notifications as read at once - same selection as /bulk/dismiss
+     */
+    @PutMapping("/bulk/mark-read")
+    public ResponseEntity<Map<String, Object>> bulkMarkRead(@RequestBody BulkNotificationRequest request) {
+        int updated = bulkNotificationService.markRead(request);
+        return ResponseEntity.ok(Map.of("message", "Notifications marked as read", "updated", updated));
+    }
+    
     /**
      * Manually trigger aging calculation (for testing)
      */
@@ -93,6 +134,13 @@ public class NotificationController {
         return ResponseEntity.ok(Map.of("message", "Aging calculation triggered successfully"));
     }
     
+    private NotificationPageDTO toPage(OnboardingAgingService.NotificationPage page) {
+        return NotificationPageDTO.builder()
+            .items(convertToDTO(page.notifications()))
+            .nextCursor(page.nextCursor())
+            .build();
+    }
+    
     // Helper method to convert entities to DTOs
     private List<OnboardingAgingNotificationDTO> convertToDTO(List<OnboardingAgingNotification> notifications) {
         return notifications.stream()
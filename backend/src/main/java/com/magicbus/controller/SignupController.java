@@ -1,6 +1,7 @@
 package com.magicbus.controller;
 
 import com.magicbus.dto.*;
+import com.magicbus.service.SignupRateLimitService;
 import com.magicbus.service.SignupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,7 @@ import java.util.Map;
 public class SignupController {
     
     private final SignupService signupService;
+    private final SignupRateLimitService rateLimitService;
     
     /**
      * Step 1: Send OTP to email or phone
@@ -39,6 +41,11 @@ public class SignupController {
                     .body(createErrorResponse("Contact type is required (EMAIL or PHONE)"));
             }
             
+            if (!rateLimitService.tryAcquireContact(SignupRateLimitService.SEND_OTP, request.getContact())) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(createErrorResponse("Too many OTP requests for this contact - please wait a minute"));
+            }
+            
             // Send OTP
             String otpCode = signupService.sendOtp(request);
             
@@ -76,6 +83,11 @@ public class SignupController {
                     .body(createErrorResponse("OTP code is required"));
             }
             
+            if (!rateLimitService.tryAcquireContact(SignupRateLimitService.VERIFY_OTP, request.getContact())) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(createErrorResponse("Too many verification attempts - please wait a minute"));
+            }
+            
             // Verify OTP
             Long candidateId = signupService.verifyOtp(request);
             
@@ -263,6 +275,41 @@ public class SignupController {
         }
     }
     
+    /**
+     * Submit the whole wizard (personal, education, skills, complete) at once
+     * POST /api/signup/submit
+     */
+    @PostMapping("/submit")
+    public ResponseEntity<?> submitSignup(@RequestBody SignupSubmissionDto dto) {
+        try {
+            log.info("Submitting full signup for candidate: {}", dto.getCandidateId());
+            
+            // Validate input
+            if (dto.getCandidateId() == null || dto.getCandidateId() <= 0) {
+                return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Valid candidate ID is required"));
+            }
+            
+            signupService.submitSignup(dto);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", dto.isComplete() ? "Signup completed successfully" : "Signup details saved successfully");
+            response.put("candidateId", dto.getCandidateId());
+            if (dto.isComplete()) {
+                response.put("status", "COMPLETE");
+            } else {
+                response.put("nextStep", "review");
+            }
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error submitting signup", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(createErrorResponse("Failed to submit signup: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Helper method to create error response
      */
@@ -6,6 +6,9 @@ import com.magicbus.entity.training.TrainingBatch;
 import com.magicbus.entity.training.TrainingMaster;
 import com.magicbus.entity.workflow.CandidateWorkflow;
 import com.magicbus.repository.training.TrainingBatchRepository;
+import com.magicbus.service.cache.StatsCache;
+import com.magicbus.service.cache.StatsCacheInvalidator;
+import com.magicbus.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -24,10 +27,12 @@ import java.util.stream.Collectors;
 public class TrainingCalendarController {
 
     private final TrainingBatchRepository batchRepository;
+    private final StatsCache statsCache;
 
     /**
      * Get all training calendar data with enrolled candidates
      */
+    @SingleFlight
     @GetMapping
     public ResponseEntity<List<TrainingCalendarDTO>> getTrainingCalendar(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -72,6 +77,7 @@ public class TrainingCalendarController {
     /**
      * Get training calendar for a specific month
      */
+    @SingleFlight
     @GetMapping("/month/{year}/{month}")
     public ResponseEntity<List<TrainingCalendarDTO>> getCalendarByMonth(
             @PathVariable int year,
@@ -92,10 +98,16 @@ public class TrainingCalendarController {
     }
 
     /**
-     * Get calendar summary stats
+     * Get calendar summary stats (cached until a batch or enrollment changes)
      */
+    @SingleFlight
     @GetMapping("/summary")
     public ResponseEntity<CalendarSummaryDTO> getCalendarSummary() {
+        return ResponseEntity.ok(statsCache.get(StatsCache.CALENDAR, StatsCacheInvalidator.SUMMARY_KEY,
+                this::computeCalendarSummary));
+    }
+
+    private CalendarSummaryDTO computeCalendarSummary() {
         List<TrainingBatch> activeBatches = batchRepository.findByIsActiveTrue();
         
         int totalBatches = activeBatches.size();
@@ -123,7 +135,7 @@ public class TrainingCalendarController {
                 .occupancyRate(totalCapacity > 0 ? (double) totalEnrolled / totalCapacity * 100 : 0)
                 .build();
         
-        return ResponseEntity.ok(summary);
+        return summary;
     }
 
     /**
@@ -0,0 +1,22 @@
+package com.magicbus.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * Selects notifications for a bulk dismiss / mark-read: either an id list,
+ * or any combination of candidate, color, status and age range (in days,
+ * inclusive). Only active (non-dismissed) notifications are affected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkNotificationRequest {
+    private List<Long> ids;
+    private Long candidateId;
+    private String color;
+    private String status;
+    private Integer minDays;
+    private Integer maxDays;
+}
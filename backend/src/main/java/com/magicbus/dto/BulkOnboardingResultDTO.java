@@ -0,0 +1,38 @@
+package com.magicbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOnboardingResultDTO {
+    
+    private boolean success;
+    private int total;
+    private int succeeded;
+    private int failed;
+    
+    // Per-record failures (1-based record number within the upload)
+    private List<RecordError> errors;
+    private boolean errorsTruncated;
+    
+    // Set when the upload could not be read to the end; the counts cover the
+    // records read before that, and nothing after them was imported
+    private String streamError;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecordError {
+        private int record;
+        private String phone;
+        private String message;
+    }
+}
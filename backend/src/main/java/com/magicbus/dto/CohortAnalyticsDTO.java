@@ -0,0 +1,56 @@
+package com.magicbus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortAnalyticsDTO {
+
+    // Signup months covered, yyyy-MM, inclusive
+    private String from;
+    private String to;
+
+    // When the cohort stats were last recomputed; null if never
+    private LocalDateTime computedAt;
+
+    // One funnel per signup month, and all of them merged
+    private List<CohortFunnel> cohorts;
+    private CohortFunnel total;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CohortFunnel {
+        private String cohort;
+        private List<StageStats> stages;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageStats {
+        private String stage;
+        private String stageName;
+        private Long reached;
+
+        // Share of the cohort's signups, and of the previous stage (null for SIGNED_UP / DROPPED)
+        private Double conversionFromSignup;
+        private Double conversionFromPrevious;
+
+        // Time taken to reach this stage from the previous one, in hours; null without samples
+        private Long durationSamples;
+        private Double p50Hours;
+        private Double p90Hours;
+        private Double p99Hours;
+    }
+}
@@ -1,5 +1,6 @@
 package com.magicbus.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -28,6 +29,15 @@ public class DashboardDTO {
     private List<MonthlyOnboardingData> monthlyOnboardingData;
     private List<MonthlyWorkflowData> monthlyWorkflowData;
     
+    // Only set when some queries timed out or failed; unavailable names them.
+    // Their fields hold the value from the last complete run of the same
+    // query if there is one, otherwise null - never a made-up 0. All other
+    // fields are current
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean partial;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> unavailable;
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,17 @@
+package com.magicbus.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One page of aging notifications; pass nextCursor back as ?cursor= for the
+ * next page (null on the last page)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationPageDTO {
+    private List<OnboardingAgingNotificationDTO> items;
+    private String nextCursor;
+}
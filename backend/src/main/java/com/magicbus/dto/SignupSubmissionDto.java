@@ -0,0 +1,19 @@
+package com.magicbus.dto;
+
+import lombok.*;
+
+/**
+ * DTO for submitting the whole signup wizard in one request.
+ * Any step left null is skipped; set complete=true to also finish the signup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SignupSubmissionDto {
+    private Long candidateId;
+    private PersonalDetailsDto personalDetails;
+    private EducationDetailsDto educationDetails;
+    private SkillsAndLanguagesDto skillsAndLanguages;
+    private boolean complete;
+}
@@ -7,7 +7,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "candidate")
+@Table(name = "candidate", indexes = {
+    @Index(name = "idx_candidate_created_onboarding", columnList = "created_at, onboarding_status"),
+    @Index(name = "idx_candidate_onboarding_created", columnList = "onboarding_status, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,7 +18,8 @@ import java.time.LocalDateTime;
 public class Candidate {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_seq")
+    @SequenceGenerator(name = "candidate_seq", sequenceName = "candidate_seq", allocationSize = 50)
     private Long id;
     
     // Basic Information
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class CandidateAnswer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_answer_seq")
+    @SequenceGenerator(name = "candidate_answer_seq", sequenceName = "candidate_answer_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class CandidateLanguage {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_languages_seq")
+    @SequenceGenerator(name = "candidate_languages_seq", sequenceName = "candidate_languages_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
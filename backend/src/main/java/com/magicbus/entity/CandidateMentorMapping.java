@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class CandidateMentorMapping {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_mentor_mapping_seq")
+    @SequenceGenerator(name = "candidate_mentor_mapping_seq", sequenceName = "candidate_mentor_mapping_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class CandidateOnboardingProgress {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_onboarding_progress_seq")
+    @SequenceGenerator(name = "candidate_onboarding_progress_seq", sequenceName = "candidate_onboarding_progress_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class CandidateSkill {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_skills_seq")
+    @SequenceGenerator(name = "candidate_skills_seq", sequenceName = "candidate_skills_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
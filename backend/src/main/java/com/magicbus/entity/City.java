@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class City {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "city_seq")
+    @SequenceGenerator(name = "city_seq", sequenceName = "city_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "city_name", length = 100, nullable = false)
@@ -0,0 +1,70 @@
+package com.magicbus.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Candidate or workflow count for one (region, year, month, dimension, status)
+ * cell of the dashboard, bucketed by the row's created_at. The region is the
+ * candidate's normalized (state, city), with "*" for all - see DashboardRegion.
+ */
+@Entity
+@Table(name = "dashboard_monthly_rollup")
+@IdClass(DashboardMonthlyRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardMonthlyRollup {
+
+    public static final String ONBOARDING = "ONBOARDING";
+    public static final String WORKFLOW = "WORKFLOW";
+
+    @Id
+    @Column(name = "region_state", length = 100)
+    private String regionState;
+
+    @Id
+    @Column(name = "region_city", length = 100)
+    private String regionCity;
+
+    @Id
+    @Column(name = "rollup_year")
+    private Integer rollupYear;
+
+    @Id
+    @Column(name = "rollup_month")
+    private Integer rollupMonth;
+
+    // ONBOARDING (candidate.onboarding_status) or WORKFLOW (candidate_workflow.status)
+    @Id
+    @Column(name = "dimension", length = 20)
+    private String dimension;
+
+    @Id
+    @Column(name = "status", length = 50)
+    private String status;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String regionState;
+        private String regionCity;
+        private Integer rollupYear;
+        private Integer rollupMonth;
+        private String dimension;
+        private String status;
+    }
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class DropoutRisk {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dropout_risk_seq")
+    @SequenceGenerator(name = "dropout_risk_seq", sequenceName = "dropout_risk_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class EducationDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "education_details_seq")
+    @SequenceGenerator(name = "education_details_seq", sequenceName = "education_details_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class Employer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employer_seq")
+    @SequenceGenerator(name = "employer_seq", sequenceName = "employer_seq", allocationSize = 50)
     private Long id;
     
     // Company Information
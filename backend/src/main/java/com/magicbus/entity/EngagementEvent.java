@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class EngagementEvent {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "engagement_event_seq")
+    @SequenceGenerator(name = "engagement_event_seq", sequenceName = "engagement_event_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
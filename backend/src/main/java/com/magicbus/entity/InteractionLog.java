@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class InteractionLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "interaction_log_seq")
+    @SequenceGenerator(name = "interaction_log_seq", sequenceName = "interaction_log_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class JobOpening {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_opening_seq")
+    @SequenceGenerator(name = "job_opening_seq", sequenceName = "job_opening_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class Mentor {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mentor_seq")
+    @SequenceGenerator(name = "mentor_seq", sequenceName = "mentor_seq", allocationSize = 50)
     private Long id;
     
     @Column(length = 100, nullable = false)
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class MobilisationSource {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mobilisation_source_seq")
+    @SequenceGenerator(name = "mobilisation_source_seq", sequenceName = "mobilisation_source_seq", allocationSize = 50)
     private Long id;
     
     @Column(length = 100, nullable = false, unique = true)
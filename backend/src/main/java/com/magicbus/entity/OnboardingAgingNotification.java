@@ -5,7 +5,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "onboarding_aging_notifications")
+@Table(name = "onboarding_aging_notifications", indexes = {
+    @Index(name = "idx_aging_notification_candidate_level", columnList = "candidate_id, aging_level, is_dismissed"),
+    @Index(name = "idx_aging_notification_page", columnList = "is_dismissed, severity_rank, days_since_created, id"),
+    @Index(name = "idx_aging_notification_status_page",
+           columnList = "is_dismissed, onboarding_status, severity_rank, days_since_created, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,7 +18,8 @@ import java.time.LocalDateTime;
 public class OnboardingAgingNotification {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "onboarding_aging_notifications_seq")
+    @SequenceGenerator(name = "onboarding_aging_notifications_seq", sequenceName = "onboarding_aging_notifications_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "candidate_id", nullable = false)
@@ -38,6 +44,10 @@ public class OnboardingAgingNotification {
     @Column(name = "aging_color", length = 20, nullable = false)
     private String agingColor;
     
+    // Sort key for paging: RED = 3, AMBER = 2, GREEN = 1 (higher is more severe)
+    @Column(name = "severity_rank")
+    private Integer severityRank;
+    
     @Column(name = "message", length = 500)
     private String message;
     
@@ -57,8 +67,25 @@ public class OnboardingAgingNotification {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
     
+    @PrePersist
+    protected void onCreate() {
+        if (this.severityRank == null) {
+            this.severityRank = severityRankOf(this.agingColor);
+        }
+    }
+    
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
+    
+    public static int severityRankOf(String agingColor) {
+        if ("RED".equalsIgnoreCase(agingColor)) {
+            return 3;
+        }
+        if ("AMBER".equalsIgnoreCase(agingColor)) {
+            return 2;
+        }
+        return 1;
+    }
 }
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class OnboardingProgress {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "onboarding_progress_seq")
+    @SequenceGenerator(name = "onboarding_progress_seq", sequenceName = "onboarding_progress_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne(fetch = FetchType.LAZY)
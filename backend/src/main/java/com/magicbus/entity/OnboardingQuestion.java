@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class OnboardingQuestion {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "onboarding_question_seq")
+    @SequenceGenerator(name = "onboarding_question_seq", sequenceName = "onboarding_question_seq", allocationSize = 50)
     private Long id;
     
     @Column(columnDefinition = "TEXT", nullable = false)
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class OnboardingStep {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "onboarding_step_seq")
+    @SequenceGenerator(name = "onboarding_step_seq", sequenceName = "onboarding_step_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
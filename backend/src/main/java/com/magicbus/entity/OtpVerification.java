@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "otp_verification")
+@Table(name = "otp_verification", indexes = {
+    @Index(name = "idx_otp_verification_contact_state", columnList = "contact, is_verified, expires_at"),
+    @Index(name = "idx_otp_verification_expires", columnList = "expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,7 +16,8 @@ import java.time.LocalDateTime;
 public class OtpVerification {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "otp_verification_seq")
+    @SequenceGenerator(name = "otp_verification_seq", sequenceName = "otp_verification_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 255)
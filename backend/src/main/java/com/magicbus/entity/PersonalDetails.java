@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class PersonalDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "personal_details_seq")
+    @SequenceGenerator(name = "personal_details_seq", sequenceName = "personal_details_seq", allocationSize = 50)
     private Long id;
     
     @OneToOne
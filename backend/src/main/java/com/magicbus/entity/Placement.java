@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class Placement {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "placement_seq")
+    @SequenceGenerator(name = "placement_seq", sequenceName = "placement_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
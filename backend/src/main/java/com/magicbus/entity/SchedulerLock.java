@@ -0,0 +1,31 @@
+package com.magicbus.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a scheduled job, shared by all nodes - see SchedulerLockService
+ */
+@Entity
+@Table(name = "scheduler_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLock {
+    
+    @Id
+    @Column(name = "lock_name", length = 100)
+    private String lockName;
+    
+    // Node holding the lease, null once released
+    @Column(name = "locked_by", length = 255)
+    private String lockedBy;
+    
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+    
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+}
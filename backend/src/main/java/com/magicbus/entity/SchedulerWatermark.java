@@ -0,0 +1,27 @@
+package com.magicbus.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Point up to which an incremental scheduled job has processed its input
+ */
+@Entity
+@Table(name = "scheduler_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerWatermark {
+    
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+    
+    @Column(name = "watermark", nullable = false)
+    private LocalDateTime watermark;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class SkillAssessment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "skill_assessment_seq")
+    @SequenceGenerator(name = "skill_assessment_seq", sequenceName = "skill_assessment_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class State {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "state_seq")
+    @SequenceGenerator(name = "state_seq", sequenceName = "state_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "state_code", length = 10, nullable = false, unique = true)
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class AdminUser {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "admin_users_seq")
+    @SequenceGenerator(name = "admin_users_seq", sequenceName = "admin_users_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "username", nullable = false, unique = true, length = 100)
@@ -16,7 +16,8 @@ import java.util.List;
 public class MenuGroup {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_groups_seq")
+    @SequenceGenerator(name = "menu_groups_seq", sequenceName = "menu_groups_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false, unique = true, length = 50)
@@ -17,7 +17,8 @@ import java.util.List;
 public class TrainingBatch {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_batches_seq")
+    @SequenceGenerator(name = "training_batches_seq", sequenceName = "training_batches_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
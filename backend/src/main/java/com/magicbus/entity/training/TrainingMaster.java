@@ -15,7 +15,8 @@ import java.util.List;
 public class TrainingMaster {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_master_seq")
+    @SequenceGenerator(name = "training_master_seq", sequenceName = "training_master_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false, length = 100)
@@ -8,7 +8,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "candidate_workflow")
+@Table(name = "candidate_workflow", indexes = {
+    @Index(name = "idx_candidate_workflow_created_status", columnList = "created_at, status"),
+    @Index(name = "idx_candidate_workflow_status_created", columnList = "status, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,7 +19,8 @@ import java.time.LocalDateTime;
 public class CandidateWorkflow {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_workflow_seq")
+    @SequenceGenerator(name = "candidate_workflow_seq", sequenceName = "candidate_workflow_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,24 @@
+package com.magicbus.entity.workflow;
+
+/**
+ * Funnel stages of a signup cohort, in order. The duration of a stage is the
+ * time from reaching the previous stage to reaching this one.
+ */
+public enum CohortStage {
+    SIGNED_UP("Signed Up"),
+    ONBOARDED("Onboarded"),            // onboarding completed; duration: signup -> workflow created
+    SCREENED("Screened"),              // duration: workflow created -> screening completed
+    ORIENTED("Oriented"),              // duration: screening -> orientation completed
+    ENROLLED("Enrolled"),              // duration: orientation -> enrolled
+    DROPPED("Dropped");                // DROPPED or ON_HOLD; outside the funnel, no duration
+
+    private final String displayName;
+
+    CohortStage(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
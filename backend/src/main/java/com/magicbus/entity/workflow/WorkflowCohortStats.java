@@ -0,0 +1,55 @@
+package com.magicbus.entity.workflow;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * How many candidates of one signup month (cohort) reached a funnel stage,
+ * and a QuantileSketch of how long (seconds) they took to get there
+ */
+@Entity
+@Table(name = "workflow_cohort_stats")
+@IdClass(WorkflowCohortStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkflowCohortStats {
+
+    @Id
+    @Column(name = "cohort_year")
+    private Integer cohortYear;
+
+    @Id
+    @Column(name = "cohort_month")
+    private Integer cohortMonth;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", length = 30)
+    private CohortStage stage;
+
+    @Column(name = "reached_count", nullable = false)
+    private Long reachedCount;
+
+    // QuantileSketch.toBytes(); null for stages without a duration
+    @Column(name = "duration_sketch", length = 65536)
+    private byte[] durationSketch;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Integer cohortYear;
+        private Integer cohortMonth;
+        private CohortStage stage;
+    }
+}
@@ -0,0 +1,9 @@
+package com.magicbus.event;
+
+import com.magicbus.entity.Candidate;
+
+/**
+ * A candidate was registered (signup, admin onboarding or bulk import)
+ */
+public record CandidateCreatedEvent(Candidate candidate) {
+}
@@ -0,0 +1,9 @@
+package com.magicbus.event;
+
+import com.magicbus.entity.Candidate;
+
+/**
+ * A candidate's state or city changed; the candidate carries the new values
+ */
+public record CandidateRegionChangedEvent(Candidate candidate, String previousState, String previousCity) {
+}
@@ -0,0 +1,9 @@
+package com.magicbus.event;
+
+import com.magicbus.entity.Candidate;
+
+/**
+ * A candidate's onboarding_status changed; the candidate carries the new status
+ */
+public record OnboardingStatusChangedEvent(Candidate candidate, String previousStatus) {
+}
@@ -0,0 +1,7 @@
+package com.magicbus.event;
+
+/**
+ * A training batch was created, edited, activated/deactivated or deleted
+ */
+public record TrainingBatchChangedEvent(Long batchId) {
+}
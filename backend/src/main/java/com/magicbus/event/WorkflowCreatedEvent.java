@@ -0,0 +1,9 @@
+package com.magicbus.event;
+
+import com.magicbus.entity.workflow.CandidateWorkflow;
+
+/**
+ * A candidate entered the screening workflow
+ */
+public record WorkflowCreatedEvent(CandidateWorkflow workflow) {
+}
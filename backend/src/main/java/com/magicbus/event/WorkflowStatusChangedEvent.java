@@ -0,0 +1,11 @@
+package com.magicbus.event;
+
+import com.magicbus.entity.workflow.CandidateWorkflow;
+import com.magicbus.entity.workflow.WorkflowStatus;
+
+/**
+ * A workflow transition (screening, orientation, enrollment); the workflow
+ * carries the new status, which may equal the previous one
+ */
+public record WorkflowStatusChangedEvent(CandidateWorkflow workflow, WorkflowStatus previousStatus) {
+}
@@ -1,11 +1,14 @@
 package com.magicbus.repository;
 
 import com.magicbus.entity.Candidate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,43 @@ public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     // Find by phone
     Optional<Candidate> findByPhoneNumber(String phoneNumber);
     
+    // Contacts (id, email, phone) after the given id - keyset pages for the contact filter rebuild
+    @Query("SELECT c.id, c.email, c.phoneNumber FROM Candidate c WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findContactsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Aging inputs (id, firstName, lastName, phoneNumber, onboardingStatus, createdAt) - keyset pages
+    @Query("SELECT c.id, c.firstName, c.lastName, c.phoneNumber, c.onboardingStatus, c.createdAt " +
+           "FROM Candidate c WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findAgingInputsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Cohort analytics inputs (id, createdAt, onboardingStatus, workflow createdAt, screeningCompletedAt,
+    // orientationCompletedAt, enrolledAt, status) - keyset pages; workflow columns are null without one
+    @Query("SELECT c.id, c.createdAt, c.onboardingStatus, w.createdAt, w.screeningCompletedAt, " +
+           "w.orientationCompletedAt, w.enrolledAt, w.status " +
+           "FROM Candidate c LEFT JOIN CandidateWorkflow w ON w.candidate = c " +
+           "WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findCohortInputsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Aging inputs for candidates created in any of three windows - used to find the
+    // candidates whose aging bucket boundary (creation, AMBER, RED) was crossed since the last run
+    @Query("SELECT c.id, c.firstName, c.lastName, c.phoneNumber, c.onboardingStatus, c.createdAt " +
+           "FROM Candidate c WHERE c.id > :afterId AND (" +
+           "(c.createdAt > :from1 AND c.createdAt <= :to1) OR " +
+           "(c.createdAt > :from2 AND c.createdAt <= :to2) OR " +
+           "(c.createdAt > :from3 AND c.createdAt <= :to3)) ORDER BY c.id")
+    List<Object[]> findAgingInputsCreatedIn(@Param("afterId") Long afterId,
+                                            @Param("from1") LocalDateTime from1, @Param("to1") LocalDateTime to1,
+                                            @Param("from2") LocalDateTime from2, @Param("to2") LocalDateTime to2,
+                                            @Param("from3") LocalDateTime from3, @Param("to3") LocalDateTime to3,
+                                            Pageable pageable);
+    
+    // Which of the given emails / phone numbers are already registered (bulk onboarding)
+    @Query("SELECT c.email FROM Candidate c WHERE c.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT c.phoneNumber FROM Candidate c WHERE c.phoneNumber IN :phones")
+    List<String> findExistingPhoneNumbers(@Param("phones") Collection<String> phones);
+    
     // Find all active candidates
     @Query("SELECT c FROM Candidate c WHERE c.status = 'ACTIVE' ORDER BY c.createdAt DESC")
     List<Candidate> findAllActiveCandidates();
@@ -33,20 +73,21 @@ public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     // Count by onboarding status
     Long countByOnboardingStatus(String onboardingStatus);
     
-    // Count by onboarding status and month/year
-    @Query("SELECT COUNT(c) FROM Candidate c WHERE c.onboardingStatus = :status " +
-           "AND YEAR(c.createdAt) = :year AND MONTH(c.createdAt) = :month")
-    Long countByOnboardingStatusAndMonth(@Param("status") String status, 
-                                         @Param("year") int year, 
-                                         @Param("month") int month);
-    
-    // Count by onboarding status and year only
-    @Query("SELECT COUNT(c) FROM Candidate c WHERE c.onboardingStatus = :status " +
-           "AND YEAR(c.createdAt) = :year")
-    Long countByOnboardingStatusAndYear(@Param("status") String status, 
-                                        @Param("year") int year);
-    
-    // Count all candidates by year
-    @Query("SELECT COUNT(c) FROM Candidate c WHERE YEAR(c.createdAt) = :year")
-    Long countByYear(@Param("year") int year);
+    // Count candidates created in [from, to), grouped by month and onboarding status.
+    // A plain range on created_at (not YEAR(created_at)) so the index can be used
+    @Query("SELECT MONTH(c.createdAt), c.onboardingStatus, COUNT(c) FROM Candidate c " +
+           "WHERE c.createdAt >= :from AND c.createdAt < :to " +
+           "GROUP BY MONTH(c.createdAt), c.onboardingStatus")
+    List<Object[]> countByMonthAndOnboardingStatus(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
+
+    // Same as countByMonthAndOnboardingStatus for one region (normalized names, city "*" for the whole state)
+    @Query("SELECT MONTH(c.createdAt), c.onboardingStatus, COUNT(c) FROM Candidate c " +
+           "WHERE c.createdAt >= :from AND c.createdAt < :to " +
+           "AND LOWER(TRIM(c.state)) = :state AND (:city = '*' OR LOWER(TRIM(c.city)) = :city) " +
+           "GROUP BY MONTH(c.createdAt), c.onboardingStatus")
+    List<Object[]> countByMonthAndOnboardingStatusInRegion(@Param("from") LocalDateTime from,
+                                                           @Param("to") LocalDateTime to,
+                                                           @Param("state") String state,
+                                                           @Param("city") String city);
 }
@@ -0,0 +1,87 @@
+package com.magicbus.repository;
+
+import com.magicbus.entity.DashboardMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DashboardMonthlyRollupRepository
+        extends JpaRepository<DashboardMonthlyRollup, DashboardMonthlyRollup.Key> {
+
+    List<DashboardMonthlyRollup> findByRegionStateAndRegionCityAndRollupYear(String regionState, String regionCity,
+                                                                            Integer rollupYear);
+
+    // Add delta to an existing cell; returns 0 if the cell does not exist yet
+    @Modifying
+    @Query(value = "UPDATE dashboard_monthly_rollup SET row_count = row_count + :delta, updated_at = :now " +
+                   "WHERE region_state = :state AND region_city = :city AND rollup_year = :year " +
+                   "AND rollup_month = :month AND dimension = :dimension AND status = :status", nativeQuery = true)
+    int addToCell(@Param("state") String state, @Param("city") String city, @Param("year") int year,
+                  @Param("month") int month, @Param("dimension") String dimension, @Param("status") String status,
+                  @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    // Create a cell; returns 0 if another transaction created it first
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_monthly_rollup " +
+                   "(region_state, region_city, rollup_year, rollup_month, dimension, status, row_count, updated_at) " +
+                   "VALUES (:state, :city, :year, :month, :dimension, :status, :delta, :now) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertCell(@Param("state") String state, @Param("city") String city, @Param("year") int year,
+                   @Param("month") int month, @Param("dimension") String dimension, @Param("status") String status,
+                   @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM dashboard_monthly_rollup", nativeQuery = true)
+    int deleteAllCells();
+
+    // Recount candidates per (state, city, year, month of created_at, onboarding status).
+    // Region names are normalized the same way as DashboardRegion.of
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_monthly_rollup " +
+                   "(region_state, region_city, rollup_year, rollup_month, dimension, status, row_count, updated_at) " +
+                   "SELECT LOWER(TRIM(COALESCE(c.state, ''))), LOWER(TRIM(COALESCE(c.city, ''))), " +
+                   "CAST(EXTRACT(YEAR FROM c.created_at) AS INTEGER), CAST(EXTRACT(MONTH FROM c.created_at) AS INTEGER), " +
+                   "'ONBOARDING', COALESCE(c.onboarding_status, 'UNKNOWN'), COUNT(*), :now " +
+                   "FROM candidate c WHERE c.created_at IS NOT NULL " +
+                   "GROUP BY LOWER(TRIM(COALESCE(c.state, ''))), LOWER(TRIM(COALESCE(c.city, ''))), " +
+                   "CAST(EXTRACT(YEAR FROM c.created_at) AS INTEGER), CAST(EXTRACT(MONTH FROM c.created_at) AS INTEGER), " +
+                   "COALESCE(c.onboarding_status, 'UNKNOWN')", nativeQuery = true)
+    int rebuildOnboardingCells(@Param("now") LocalDateTime now);
+
+    // Recount workflows per (candidate's state and city, year, month of created_at, status)
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_monthly_rollup " +
+                   "(region_state, region_city, rollup_year, rollup_month, dimension, status, row_count, updated_at) " +
+                   "SELECT LOWER(TRIM(COALESCE(c.state, ''))), LOWER(TRIM(COALESCE(c.city, ''))), " +
+                   "CAST(EXTRACT(YEAR FROM w.created_at) AS INTEGER), CAST(EXTRACT(MONTH FROM w.created_at) AS INTEGER), " +
+                   "'WORKFLOW', w.status, COUNT(*), :now " +
+                   "FROM candidate_workflow w JOIN candidate c ON c.id = w.candidate_id WHERE w.created_at IS NOT NULL " +
+                   "GROUP BY LOWER(TRIM(COALESCE(c.state, ''))), LOWER(TRIM(COALESCE(c.city, ''))), " +
+                   "CAST(EXTRACT(YEAR FROM w.created_at) AS INTEGER), CAST(EXTRACT(MONTH FROM w.created_at) AS INTEGER), " +
+                   "w.status", nativeQuery = true)
+    int rebuildWorkflowCells(@Param("now") LocalDateTime now);
+
+    // Sum the (state, city) cells into (state, *) cells; run after the two rebuilds above
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_monthly_rollup " +
+                   "(region_state, region_city, rollup_year, rollup_month, dimension, status, row_count, updated_at) " +
+                   "SELECT region_state, '*', rollup_year, rollup_month, dimension, status, SUM(row_count), :now " +
+                   "FROM dashboard_monthly_rollup WHERE region_state <> '*' AND region_city <> '*' " +
+                   "GROUP BY region_state, rollup_year, rollup_month, dimension, status", nativeQuery = true)
+    int rebuildStateCells(@Param("now") LocalDateTime now);
+
+    // Sum the (state, *) cells into the global (*, *) cells; run after rebuildStateCells
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_monthly_rollup " +
+                   "(region_state, region_city, rollup_year, rollup_month, dimension, status, row_count, updated_at) " +
+                   "SELECT '*', '*', rollup_year, rollup_month, dimension, status, SUM(row_count), :now " +
+                   "FROM dashboard_monthly_rollup WHERE region_state <> '*' AND region_city = '*' " +
+                   "GROUP BY rollup_year, rollup_month, dimension, status", nativeQuery = true)
+    int rebuildGlobalCells(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,43 @@
+package com.magicbus.repository;
+
+import com.magicbus.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claim a new key; returns 0 if another request holds it
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at) " +
+                   "VALUES (:key, :hash, :now, :until) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertPending(@Param("key") String key, @Param("hash") String requestHash,
+                      @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Take over a key whose response or claim has expired but is not purged yet
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET request_hash = :hash, status_code = NULL, content_type = NULL, " +
+                   "response_body = NULL, created_at = :now, expires_at = :until " +
+                   "WHERE idempotency_key = :key AND expires_at < :now", nativeQuery = true)
+    int claimExpired(@Param("key") String key, @Param("hash") String requestHash,
+                     @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET status_code = :status, content_type = :contentType, " +
+                   "response_body = :body, expires_at = :until WHERE idempotency_key = :key AND status_code IS NULL", nativeQuery = true)
+    int complete(@Param("key") String key, @Param("status") int status, @Param("contentType") String contentType,
+                 @Param("body") String body, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE idempotency_key = :key AND status_code IS NULL", nativeQuery = true)
+    int deletePending(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,12 +1,14 @@
 package com.magicbus.repository;
 
 import com.magicbus.entity.OnboardingAgingNotification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +18,33 @@ public interface OnboardingAgingNotificationRepository extends JpaRepository<Onb
     // Find by candidate ID (latest notification)
     Optional<OnboardingAgingNotification> findTopByCandidateIdOrderByCreatedAtDesc(Long candidateId);
     
-    // Find all active (non-dismissed) notifications ordered by aging level severity
-    @Query("SELECT n FROM OnboardingAgingNotification n WHERE n.isDismissed = false " +
-           "ORDER BY CASE n.agingColor WHEN 'RED' THEN 1 WHEN 'AMBER' THEN 2 WHEN 'GREEN' THEN 3 ELSE 4 END, " +
-           "n.daysSinceCreated DESC")
-    List<OnboardingAgingNotification> findAllActiveNotifications();
+    // Keyset pages of active notifications, most severe and oldest first.
+    // The cursor is the (severity_rank, days_since_created, id) of the last row of the previous page;
+    // native because HQL cannot compare tuples with parameters, while a row value
+    // comparison is an index range on both PostgreSQL and H2.
+    @Query(value = "SELECT * FROM onboarding_aging_notifications n WHERE n.is_dismissed = false " +
+                   "AND (n.severity_rank, n.days_since_created, n.id) < (:rank, :days, :id) " +
+                   "ORDER BY n.severity_rank DESC, n.days_since_created DESC, n.id DESC", nativeQuery = true)
+    List<OnboardingAgingNotification> findActivePage(@Param("rank") int rank, @Param("days") int days,
+                                                     @Param("id") long id, Pageable pageable);
+    
+    // Same, for one aging color (a color maps to one severity rank)
+    @Query(value = "SELECT * FROM onboarding_aging_notifications n WHERE n.is_dismissed = false " +
+                   "AND n.severity_rank = :severity " +
+                   "AND (n.severity_rank, n.days_since_created, n.id) < (:rank, :days, :id) " +
+                   "ORDER BY n.severity_rank DESC, n.days_since_created DESC, n.id DESC", nativeQuery = true)
+    List<OnboardingAgingNotification> findActivePageBySeverity(@Param("severity") int severity,
+                                                               @Param("rank") int rank, @Param("days") int days,
+                                                               @Param("id") long id, Pageable pageable);
+    
+    // Same, for one onboarding status
+    @Query(value = "SELECT * FROM onboarding_aging_notifications n WHERE n.is_dismissed = false " +
+                   "AND n.onboarding_status = :status " +
+                   "AND (n.severity_rank, n.days_since_created, n.id) < (:rank, :days, :id) " +
+                   "ORDER BY n.severity_rank DESC, n.days_since_created DESC, n.id DESC", nativeQuery = true)
+    List<OnboardingAgingNotification> findActivePageByStatus(@Param("status") String status,
+                                                             @Param("rank") int rank, @Param("days") int days,
+                                                             @Param("id") long id, Pageable pageable);
     
     // Find unread notifications
     List<OnboardingAgingNotification> findByIsReadFalseAndIsDismissedFalseOrderByCreatedAtDesc();
@@ -28,35 +52,111 @@ public interface OnboardingAgingNotificationRepository extends JpaRepository<Onb
     // Count unread notifications
     Long countByIsReadFalseAndIsDismissedFalse();
     
-    // Find by aging color
-    List<OnboardingAgingNotification> findByAgingColorAndIsDismissedFalseOrderByDaysSinceCreatedDesc(String agingColor);
-    
-    // Find by onboarding status
-    List<OnboardingAgingNotification> findByOnboardingStatusAndIsDismissedFalseOrderByDaysSinceCreatedDesc(String onboardingStatus);
+    // Count active notifications
+    Long countByIsDismissedFalse();
     
     // Mark all as read
     @Modifying
-    @Query("UPDATE OnboardingAgingNotification n SET n.isRead = true WHERE n.isRead = false")
+    @Query("UPDATE OnboardingAgingNotification n SET n.isRead = true WHERE n.isRead = false AND n.isDismissed = false")
     int markAllAsRead();
     
-    // Dismiss notification
+    // Dismiss notification - 0 if it was already dismissed
     @Modifying
-    @Query("UPDATE OnboardingAgingNotification n SET n.isDismissed = true WHERE n.id = :id")
+    @Query("UPDATE OnboardingAgingNotification n SET n.isDismissed = true, n.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE n.id = :id AND n.isDismissed = false")
     int dismissNotification(@Param("id") Long id);
     
-    // Dismiss all notifications for a candidate (when their status changes)
+    // Bulk operations: active notification ids matching a filter (null = any), one chunk
+    // at a time in id order after :afterId
+    @Query("SELECT n.id FROM OnboardingAgingNotification n WHERE n.isDismissed = false AND n.id > :afterId " +
+           "AND (:candidateId IS NULL OR n.candidateId = :candidateId) " +
+           "AND (:color IS NULL OR n.agingColor = :color) " +
+           "AND (:status IS NULL OR n.onboardingStatus = :status) " +
+           "AND (:minDays IS NULL OR n.daysSinceCreated >= :minDays) " +
+           "AND (:maxDays IS NULL OR n.daysSinceCreated <= :maxDays) " +
+           "ORDER BY n.id")
+    List<Long> findActiveIdsMatching(@Param("afterId") long afterId,
+                                     @Param("candidateId") Long candidateId,
+                                     @Param("color") String color,
+                                     @Param("status") String status,
+                                     @Param("minDays") Integer minDays,
+                                     @Param("maxDays") Integer maxDays,
+                                     Pageable pageable);
+    
+    // Bulk dismiss of one chunk - returns the rows actually changed
     @Modifying
-    @Query("UPDATE OnboardingAgingNotification n SET n.isDismissed = true WHERE n.candidateId = :candidateId")
-    int dismissAllForCandidate(@Param("candidateId") Long candidateId);
+    @Query("UPDATE OnboardingAgingNotification n SET n.isDismissed = true, n.updatedAt = :now " +
+           "WHERE n.id IN :ids AND n.isDismissed = false")
+    int dismissByIds(@Param("ids") Collection<Long> ids, @Param("now") java.time.LocalDateTime now);
+    
+    // Bulk mark-read of one chunk (active notifications only) - returns the rows actually changed
+    @Modifying
+    @Query("UPDATE OnboardingAgingNotification n SET n.isRead = true, n.updatedAt = :now " +
+           "WHERE n.id IN :ids AND n.isRead = false AND n.isDismissed = false")
+    int markReadByIds(@Param("ids") Collection<Long> ids, @Param("now") java.time.LocalDateTime now);
     
-    // Delete old dismissed notifications (cleanup)
+    // Dismiss all active notifications for a candidate (when their status changes).
+    // updatedAt is the dismissal time that retention counts from
     @Modifying
-    @Query("DELETE FROM OnboardingAgingNotification n WHERE n.isDismissed = true AND n.updatedAt < :beforeDate")
-    int deleteOldDismissedNotifications(@Param("beforeDate") java.time.LocalDateTime beforeDate);
+    @Query("UPDATE OnboardingAgingNotification n SET n.isDismissed = true, n.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE n.candidateId = :candidateId AND n.isDismissed = false")
+    int dismissAllForCandidate(@Param("candidateId") Long candidateId);
+    
+    // Dismissed notifications past retention, one chunk at a time (see NotificationRetentionService)
+    @Query("SELECT n.id FROM OnboardingAgingNotification n WHERE n.isDismissed = true AND n.updatedAt < :cutoff " +
+           "ORDER BY n.id")
+    List<Long> findPurgeableDismissedIds(@Param("cutoff") java.time.LocalDateTime cutoff, Pageable pageable);
     
     // Check if notification exists for candidate with same aging level
     boolean existsByCandidateIdAndAgingLevelAndIsDismissedFalse(Long candidateId, String agingLevel);
     
+    // Active (candidateId, agingLevel) pairs for a set of candidates - one query per aging page
+    @Query("SELECT n.candidateId, n.agingLevel FROM OnboardingAgingNotification n " +
+           "WHERE n.isDismissed = false AND n.candidateId IN :candidateIds")
+    List<Object[]> findActiveLevels(@Param("candidateIds") Collection<Long> candidateIds);
+    
+    /**
+     * Set-based aging (aging.mode=sql): classify every candidate and insert the
+     * notifications that are missing, in one statement. Levels and messages
+     * mirror OnboardingAgingService.determineAgingLevel. NOT EXISTS does the
+     * filtering; ON CONFLICT DO NOTHING covers concurrent runs on databases
+     * with the uq_aging_notification_active index (V8; on the active partition
+     * after V11). Each row takes its own nextval, i.e. one pooled block of ids
+     * per inserted row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO onboarding_aging_notifications (id, candidate_id, candidate_name, phone_number, " +
+           "onboarding_status, days_since_created, aging_level, aging_color, severity_rank, message, is_read, is_dismissed, " +
+           "created_at, updated_at) " +
+           "SELECT nextval('onboarding_aging_notifications_seq'), a.id, a.candidate_name, a.phone_number, " +
+           "a.onboarding_status, a.days, a.aging_level, " +
+           "CASE a.aging_level WHEN 'CRITICAL' THEN 'RED' WHEN 'WARNING' THEN 'AMBER' ELSE 'GREEN' END, " +
+           "CASE a.aging_level WHEN 'CRITICAL' THEN 3 WHEN 'WARNING' THEN 2 ELSE 1 END, " +
+           "CASE WHEN a.completed AND a.aging_level = 'NORMAL' " +
+           "       THEN 'Onboarding completed ' || CAST(a.days AS VARCHAR) || ' day(s) ago' " +
+           "     WHEN a.completed THEN 'Onboarding completed ' || CAST(a.days AS VARCHAR) || ' days ago' " +
+           "     WHEN a.aging_level = 'CRITICAL' " +
+           "       THEN 'Onboarding incomplete for ' || CAST(a.days AS VARCHAR) || ' days - URGENT ACTION REQUIRED' " +
+           "     WHEN a.aging_level = 'WARNING' " +
+           "       THEN 'Onboarding incomplete for ' || CAST(a.days AS VARCHAR) || ' days - needs follow-up' " +
+           "     ELSE 'Onboarding in progress - ' || CAST(a.days AS VARCHAR) || ' day(s) since registration' END, " +
+           "false, false, :now, :now " +
+           "FROM (SELECT d.id, d.candidate_name, d.phone_number, d.onboarding_status, d.days, " +
+           "             CASE WHEN d.days >= :redDays THEN 'CRITICAL' " +
+           "                  WHEN d.days >= :amberDays THEN 'WARNING' ELSE 'NORMAL' END AS aging_level, " +
+           "             UPPER(d.onboarding_status) IN ('COMPLETE', 'COMPLETED') AS completed " +
+           "      FROM (SELECT c.id, c.first_name || ' ' || c.last_name AS candidate_name, c.phone_number, " +
+           "                   COALESCE(c.onboarding_status, 'INCOMPLETE') AS onboarding_status, " +
+           "                   CAST(EXTRACT(DAY FROM (CAST(:now AS TIMESTAMP) - c.created_at)) AS INTEGER) AS days " +
+           "            FROM candidate c WHERE c.created_at IS NOT NULL) d) a " +
+           "WHERE NOT EXISTS (SELECT 1 FROM onboarding_aging_notifications n " +
+           "                  WHERE n.candidate_id = a.id AND n.aging_level = a.aging_level " +
+           "                    AND n.is_dismissed = false) " +
+           "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMissingNotifications(@Param("now") java.time.LocalDateTime now,
+                                   @Param("amberDays") int amberDays,
+                                   @Param("redDays") int redDays);
+    
     // Get summary counts by color
     @Query("SELECT n.agingColor, COUNT(n) FROM OnboardingAgingNotification n " +
            "WHERE n.isDismissed = false GROUP BY n.agingColor")
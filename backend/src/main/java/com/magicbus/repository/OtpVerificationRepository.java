@@ -1,12 +1,32 @@
 package com.magicbus.repository;
 
 import com.magicbus.entity.OtpVerification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OtpVerificationRepository extends JpaRepository<OtpVerification, Long> {
     Optional<OtpVerification> findByContactAndIsVerifiedFalse(String contact);
     Optional<OtpVerification> findByContactAndOtpCode(String contact, String otpCode);
+    Optional<OtpVerification> findTopByContactOrderByCreatedAtDesc(String contact);
+
+    // Count one attempt unless the limit is reached; returns 0 if it was
+    @Modifying
+    @Query("UPDATE OtpVerification o SET o.attempts = o.attempts + 1 " +
+           "WHERE o.id = :id AND o.attempts < o.maxAttempts")
+    int consumeAttempt(@Param("id") Long id);
+
+    // Ids of OTPs that expired, or were verified, before the cutoff - one purge chunk.
+    // Served by idx_otp_verification_expires and the partial idx_otp_verification_verified_at (V17)
+    @Query("SELECT o.id FROM OtpVerification o WHERE o.expiresAt < :cutoff " +
+           "OR (o.isVerified = true AND o.verifiedAt < :cutoff) ORDER BY o.id")
+    List<Long> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 }
@@ -0,0 +1,39 @@
+package com.magicbus.repository;
+
+import com.magicbus.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+    
+    // First use of a lock name - fails with a key violation if another node inserted it first
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lock (lock_name, locked_by, locked_at, locked_until) " +
+                   "VALUES (:name, :owner, :now, :until)", nativeQuery = true)
+    int insertLock(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+    
+    // Take the lease if it has expired (released or abandoned)
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedBy = :owner, l.lockedAt = :now, l.lockedUntil = :until " +
+           "WHERE l.lockName = :name AND l.lockedUntil <= :now")
+    int acquireExpired(@Param("name") String name, @Param("owner") String owner,
+                       @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+    
+    // Extend a lease this node still holds
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until WHERE l.lockName = :name AND l.lockedBy = :owner")
+    int renew(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+    
+    // Give the lease up; it stays blocked until :until
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedBy = null, l.lockedUntil = :until " +
+           "WHERE l.lockName = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("until") LocalDateTime until);
+}
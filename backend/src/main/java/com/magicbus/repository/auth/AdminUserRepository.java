@@ -46,4 +46,13 @@ public interface AdminUserRepository extends JpaRepository<AdminUser, Long> {
            "LEFT JOIN FETCH a.city " +
            "WHERE a.authToken = :authToken")
     Optional<AdminUser> findByAuthToken(@Param("authToken") String authToken);
+
+    // Region of the admin holding the token: (state name, city name), either may be null.
+    // The state of a city admin comes from the city if the admin has no state set
+    @Query("SELECT COALESCE(s.stateName, cs.stateName), c.cityName FROM AdminUser a " +
+           "LEFT JOIN a.state s " +
+           "LEFT JOIN a.city c " +
+           "LEFT JOIN c.state cs " +
+           "WHERE a.authToken = :authToken")
+    List<Object[]> findRegionByAuthToken(@Param("authToken") String authToken);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,17 +39,22 @@ public interface CandidateWorkflowRepository extends JpaRepository<CandidateWork
     @Query("SELECT COUNT(cw) FROM CandidateWorkflow cw WHERE cw.status = :status")
     Long countByStatus(@Param("status") WorkflowStatus status);
 
-    @Query("SELECT COUNT(cw) FROM CandidateWorkflow cw WHERE cw.status = :status " +
-           "AND YEAR(cw.createdAt) = :year AND MONTH(cw.createdAt) = :month")
-    Long countByStatusAndMonth(@Param("status") WorkflowStatus status, 
-                               @Param("year") int year, 
-                               @Param("month") int month);
-    
-    // Count by status and year only
-    @Query("SELECT COUNT(cw) FROM CandidateWorkflow cw WHERE cw.status = :status " +
-           "AND YEAR(cw.createdAt) = :year")
-    Long countByStatusAndYear(@Param("status") WorkflowStatus status, 
-                              @Param("year") int year);
+    // Count workflows created in [from, to), grouped by month and status
+    @Query("SELECT MONTH(cw.createdAt), cw.status, COUNT(cw) FROM CandidateWorkflow cw " +
+           "WHERE cw.createdAt >= :from AND cw.createdAt < :to " +
+           "GROUP BY MONTH(cw.createdAt), cw.status")
+    List<Object[]> countByMonthAndStatus(@Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    // Same as countByMonthAndStatus for the candidates of one region (normalized names, city "*" for the whole state)
+    @Query("SELECT MONTH(cw.createdAt), cw.status, COUNT(cw) FROM CandidateWorkflow cw JOIN cw.candidate c " +
+           "WHERE cw.createdAt >= :from AND cw.createdAt < :to " +
+           "AND LOWER(TRIM(c.state)) = :state AND (:city = '*' OR LOWER(TRIM(c.city)) = :city) " +
+           "GROUP BY MONTH(cw.createdAt), cw.status")
+    List<Object[]> countByMonthAndStatusInRegion(@Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to,
+                                                 @Param("state") String state,
+                                                 @Param("city") String city);
 
     boolean existsByCandidateId(Long candidateId);
 }
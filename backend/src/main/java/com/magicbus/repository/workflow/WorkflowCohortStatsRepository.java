@@ -0,0 +1,25 @@
+package com.magicbus.repository.workflow;
+
+import com.magicbus.entity.workflow.WorkflowCohortStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WorkflowCohortStatsRepository
+        extends JpaRepository<WorkflowCohortStats, WorkflowCohortStats.Key> {
+
+    // Cohorts from..to inclusive, as year * 100 + month
+    @Query("SELECT s FROM WorkflowCohortStats s " +
+           "WHERE s.cohortYear * 100 + s.cohortMonth BETWEEN :from AND :to " +
+           "ORDER BY s.cohortYear, s.cohortMonth, s.stage")
+    List<WorkflowCohortStats> findCohorts(@Param("from") int from, @Param("to") int to);
+
+    @Modifying
+    @Query(value = "DELETE FROM workflow_cohort_stats", nativeQuery = true)
+    int deleteAllStats();
+}
@@ -0,0 +1,53 @@
+package com.magicbus.scheduler;
+
+import com.magicbus.service.dashboard.CohortAnalyticsService;
+import com.magicbus.service.lock.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CohortAnalyticsScheduler {
+
+    private static final Duration REFRESH_LEASE = Duration.ofMinutes(30);
+    private static final Duration REFRESH_MIN_HOLD = Duration.ofMinutes(1);
+
+    private final CohortAnalyticsService cohortAnalyticsService;
+    private final SchedulerLockService lockService;
+
+    /**
+     * Compute the cohort stats on first start
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            lockService.runLocked("dashboard-cohort-refresh", REFRESH_LEASE, Duration.ZERO, () -> {
+                if (cohortAnalyticsService.refreshIfEmpty()) {
+                    log.info("SCHEDULED JOB: Cohort stats backfilled");
+                }
+            });
+        } catch (Exception e) {
+            log.error("SCHEDULED JOB: Error backfilling cohort stats", e);
+        }
+    }
+
+    /**
+     * Nightly recompute of the cohort funnels and stage duration sketches -
+     * 3:45 AM by default, on one node at a time
+     */
+    @Scheduled(cron = "${dashboard.cohorts.refresh-cron:0 45 3 * * ?}")
+    public void refresh() {
+        try {
+            lockService.runLocked("dashboard-cohort-refresh", REFRESH_LEASE, REFRESH_MIN_HOLD, cohortAnalyticsService::refresh);
+        } catch (Exception e) {
+            log.error("SCHEDULED JOB: Error recomputing cohort stats", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.magicbus.scheduler;
+
+import com.magicbus.service.dashboard.DashboardRollupService;
+import com.magicbus.service.lock.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConditionalOnProperty(name = "dashboard.rollup.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardRollupScheduler {
+
+    private static final Duration REBUILD_LEASE = Duration.ofMinutes(10);
+    private static final Duration REBUILD_MIN_HOLD = Duration.ofMinutes(1);
+
+    private final DashboardRollupService rollupService;
+    private final SchedulerLockService lockService;
+
+    /**
+     * Backfill the rollup on first start
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            lockService.runLocked("dashboard-rollup-rebuild", REBUILD_LEASE, Duration.ZERO, () -> {
+                if (rollupService.rebuildIfEmpty()) {
+                    log.info("SCHEDULED JOB: Dashboard rollup backfilled");
+                }
+            });
+        } catch (Exception e) {
+            log.error("SCHEDULED JOB: Error backfilling dashboard rollup", e);
+        }
+    }
+
+    /**
+     * Nightly recount of the dashboard rollup (drift repair) - 3:30 AM by
+     * default, on one node at a time
+     */
+    @Scheduled(cron = "${dashboard.rollup.rebuild-cron:0 30 3 * * ?}")
+    public void rebuild() {
+        try {
+            lockService.runLocked("dashboard-rollup-rebuild", REBUILD_LEASE, REBUILD_MIN_HOLD, rollupService::rebuild);
+        } catch (Exception e) {
+            log.error("SCHEDULED JOB: Error rebuilding dashboard rollup", e);
+        }
+    }
+}
@@ -1,21 +1,32 @@
 package com.magicbus.scheduler;
 
 import com.magicbus.service.OnboardingAgingService;
+import com.magicbus.service.lock.SchedulerLockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OnboardingAgingScheduler {
     
+    // Leases are renewed while a run is in progress; the minimum hold keeps
+    // other nodes from repeating a run within the same tick
+    private static final Duration AGING_LEASE = Duration.ofMinutes(2);
+    private static final Duration AGING_MIN_HOLD = Duration.ofSeconds(50);
+    private static final Duration CLEANUP_LEASE = Duration.ofMinutes(10);
+    private static final Duration CLEANUP_MIN_HOLD = Duration.ofMinutes(5);
+    
     private final OnboardingAgingService agingService;
+    private final SchedulerLockService lockService;
     
     /**
      * Scheduled job to calculate onboarding aging every 60 seconds
-     * Runs every minute to update aging data
+     * Runs every minute to update aging data, on one node at a time
      */
     @Scheduled(fixedRate = 60000) // 60 seconds = 60000 milliseconds
     public void calculateOnboardingAging() {
@@ -24,8 +35,12 @@ public class OnboardingAgingScheduler {
         log.info("========================================");
         
         try {
-            agingService.calculateAndUpdateAging();
-            log.info("SCHEDULED JOB: Onboarding Aging Calculator Completed Successfully");
+            if (lockService.runLocked("onboarding-aging", AGING_LEASE, AGING_MIN_HOLD,
+                    agingService::calculateAndUpdateAging)) {
+                log.info("SCHEDULED JOB: Onboarding Aging Calculator Completed Successfully");
+            } else {
+                log.info("SCHEDULED JOB: Onboarding Aging Calculator skipped - running on another node");
+            }
         } catch (Exception e) {
             log.error("SCHEDULED JOB: Error calculating onboarding aging", e);
         }
@@ -42,8 +57,13 @@ public class OnboardingAgingScheduler {
         log.info("SCHEDULED JOB: Starting notification cleanup");
         
         try {
-            int deleted = agingService.cleanupOldNotifications();
-            log.info("SCHEDULED JOB: Cleaned up {} old notifications", deleted);
+            boolean ran = lockService.runLocked("onboarding-notification-cleanup", CLEANUP_LEASE, CLEANUP_MIN_HOLD, () -> {
+                int deleted = agingService.cleanupOldNotifications();
+                log.info("SCHEDULED JOB: Cleaned up {} old notifications", deleted);
+            });
+            if (!ran) {
+                log.info("SCHEDULED JOB: Notification cleanup skipped - running on another node");
+            }
         } catch (Exception e) {
             log.error("SCHEDULED JOB: Error cleaning up notifications", e);
         }
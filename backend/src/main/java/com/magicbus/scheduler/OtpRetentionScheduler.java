@@ -0,0 +1,40 @@
+package com.magicbus.scheduler;
+
+import com.magicbus.service.lock.SchedulerLockService;
+import com.magicbus.service.otp.OtpRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConditionalOnProperty(name = "otp.retention.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OtpRetentionScheduler {
+
+    private static final Duration RETENTION_LEASE = Duration.ofMinutes(5);
+    private static final Duration RETENTION_MIN_HOLD = Duration.ofMinutes(1);
+
+    private final OtpRetentionService otpRetentionService;
+    private final SchedulerLockService lockService;
+
+    /**
+     * Scheduled purge of expired/verified OTPs - every 15 minutes by default,
+     * on one node at a time
+     */
+    @Scheduled(cron = "${otp.retention.cron:0 */15 * * * ?}")
+    public void purgeOtpVerifications() {
+        try {
+            lockService.runLocked("otp-retention", RETENTION_LEASE, RETENTION_MIN_HOLD, () -> {
+                int removed = otpRetentionService.purge();
+                log.debug("SCHEDULED JOB: OTP retention removed {} rows", removed);
+            });
+        } catch (Exception e) {
+            log.error("SCHEDULED JOB: Error purging OTP verifications", e);
+        }
+    }
+}
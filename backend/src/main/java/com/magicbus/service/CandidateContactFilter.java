@@ -0,0 +1,195 @@
+package com.magicbus.service;
+
+import com.magicbus.entity.Candidate;
+import com.magicbus.repository.CandidateRepository;
+import com.magicbus.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory Bloom filter over every known candidate email and phone number,
+ * used by signup to skip the findByEmail/findByPhoneNumber lookup when a
+ * contact is definitely new.
+ *
+ * The filter is rebuilt from the candidates table on startup and then every
+ * signup.contact-filter.rebuild-millis, and contacts written by this node are
+ * added as they are saved. It is only a shortcut - contacts added by another
+ * node since the last rebuild can be missed, so inserts still rely on the
+ * unique constraints on email and phone_number.
+ *
+ * Until the first build finishes (or when disabled) every contact is
+ * reported as "might exist", i.e. the lookup always runs.
+ *
+ * Metrics: signup.contact_filter.checks{result=skipped|maybe|false_positive},
+ * signup.contact_filter.rebuild (timer), signup.contact_filter.memory_bytes,
+ * signup.contact_filter.expected_fpp and signup.contact_filter.observed_fpp.
+ */
+@Service
+@Slf4j
+public class CandidateContactFilter {
+
+    private static final int REBUILD_PAGE_SIZE = 5000;
+    private static final String PENDING = "PENDING";
+
+    private final CandidateRepository candidateRepository;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+
+    private final Counter skipped;
+    private final Counter maybe;
+    private final Counter falsePositives;
+    private final Timer rebuildTimer;
+
+    public CandidateContactFilter(
+            CandidateRepository candidateRepository,
+            MeterRegistry meterRegistry,
+            @Value("${signup.contact-filter.enabled:true}") boolean enabled,
+            @Value("${signup.contact-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${signup.contact-filter.min-capacity:100000}") long minCapacity) {
+        this.candidateRepository = candidateRepository;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+
+        this.skipped = counter(meterRegistry, "skipped");
+        this.maybe = counter(meterRegistry, "maybe");
+        this.falsePositives = counter(meterRegistry, "false_positive");
+        this.rebuildTimer = Timer.builder("signup.contact_filter.rebuild")
+            .description("Time to rebuild the candidate contact Bloom filter")
+            .register(meterRegistry);
+
+        Gauge.builder("signup.contact_filter.memory_bytes", this,
+                f -> f.current == null ? 0 : f.current.sizeInBytes())
+            .description("Memory used by the candidate contact Bloom filter")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("signup.contact_filter.expected_fpp", this,
+                f -> f.current == null ? 0 : f.current.expectedFalsePositiveRate())
+            .description("False-positive rate implied by the filter's current fill")
+            .register(meterRegistry);
+        Gauge.builder("signup.contact_filter.observed_fpp", this,
+                f -> f.maybe.count() == 0 ? 0 : f.falsePositives.count() / f.maybe.count())
+            .description("Share of 'might exist' answers where the lookup found nothing")
+            .register(meterRegistry);
+    }
+
+    /**
+     * False means the contact is definitely not in the candidates table
+     * (as of the last rebuild plus local writes)
+     */
+    public boolean mightExist(String contact) {
+        BloomFilter filter = current;
+        if (filter == null || filter.mightContain(normalize(contact))) {
+            maybe.increment();
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    /**
+     * Report that a "might exist" answer was wrong (the lookup found nothing)
+     */
+    public void reportFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public void record(Candidate candidate) {
+        record(candidate.getEmail());
+        record(candidate.getPhoneNumber());
+    }
+
+    public void record(String contact) {
+        if (contact == null || contact.isBlank() || PENDING.equals(contact)) {
+            return;
+        }
+        String key = normalize(contact);
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(key);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialBuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild from the candidates table, paging by id so the table is never
+     * loaded at once. Contacts recorded while the rebuild runs go into both
+     * the old and the new filter.
+     */
+    @Scheduled(fixedDelayString = "${signup.contact-filter.rebuild-millis:3600000}",
+               initialDelayString = "${signup.contact-filter.rebuild-millis:3600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            long candidates = candidateRepository.count();
+            // two contacts per candidate, with headroom for growth until the next rebuild
+            BloomFilter next = new BloomFilter(Math.max(minCapacity, candidates * 3), falsePositiveRate);
+            building = next;
+
+            long lastId = 0;
+            long added = 0;
+            List<Object[]> page;
+            do {
+                page = candidateRepository.findContactsAfter(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (Object[] row : page) {
+                    lastId = (Long) row[0];
+                    for (int i = 1; i <= 2; i++) {
+                        String contact = (String) row[i];
+                        if (contact != null && !contact.isBlank() && !PENDING.equals(contact)) {
+                            next.put(normalize(contact));
+                            added++;
+                        }
+                    }
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+
+            current = next;
+            long elapsed = System.nanoTime() - start;
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Rebuilt candidate contact filter: {} contacts, {} KB, {} ms",
+                added, next.sizeInBytes() / 1024, elapsed / 1_000_000);
+        } catch (Exception e) {
+            log.error("Failed to rebuild candidate contact filter - keeping the previous one", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private static String normalize(String contact) {
+        return contact.trim().toLowerCase();
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("signup.contact_filter.checks")
+            .description("Candidate contact filter answers")
+            .tag("result", result)
+            .register(registry);
+    }
+}
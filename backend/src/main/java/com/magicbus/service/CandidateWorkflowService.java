@@ -6,12 +6,19 @@ import com.magicbus.entity.auth.AdminUser;
 import com.magicbus.entity.training.TrainingBatch;
 import com.magicbus.entity.workflow.CandidateWorkflow;
 import com.magicbus.entity.workflow.WorkflowStatus;
+import com.magicbus.event.WorkflowCreatedEvent;
+import com.magicbus.event.WorkflowStatusChangedEvent;
 import com.magicbus.repository.CandidateRepository;
 import com.magicbus.repository.auth.AdminUserRepository;
 import com.magicbus.repository.training.TrainingBatchRepository;
 import com.magicbus.repository.workflow.CandidateWorkflowRepository;
+import com.magicbus.service.audit.AuditLogWriter;
+import com.magicbus.service.audit.AuditSnapshots;
+import com.magicbus.service.cache.StatsCache;
+import com.magicbus.service.cache.StatsCacheInvalidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +36,9 @@ public class CandidateWorkflowService {
     private final CandidateRepository candidateRepository;
     private final AdminUserRepository adminUserRepository;
     private final TrainingBatchRepository batchRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StatsCache statsCache;
 
     /**
      * Create workflow entry for a new candidate
@@ -49,6 +59,9 @@ public class CandidateWorkflowService {
                 .build();
 
         workflow = workflowRepository.save(workflow);
+        eventPublisher.publishEvent(new WorkflowCreatedEvent(workflow));
+        auditLogWriter.record("CREATE", "candidate_workflow", workflow.getId(), candidateId,
+                null, AuditSnapshots.workflow(workflow));
         log.info("Created workflow for candidate: {} with status: {}", candidateId, workflow.getStatus());
         return workflow;
     }
@@ -104,6 +117,8 @@ public class CandidateWorkflowService {
         if (workflow.getStatus() != WorkflowStatus.PENDING_SCREENING) {
             throw new RuntimeException("Invalid status transition. Current status: " + workflow.getStatus());
         }
+        Map<String, Object> before = AuditSnapshots.workflow(workflow);
+        WorkflowStatus previousStatus = workflow.getStatus();
 
         AdminUser admin = adminUserRepository.findById(adminUserId)
                 .orElseThrow(() -> new RuntimeException("Admin user not found: " + adminUserId));
@@ -123,6 +138,7 @@ public class CandidateWorkflowService {
         }
 
         workflow = workflowRepository.save(workflow);
+        auditWorkflowUpdate(workflow, before, previousStatus);
         return toDTO(workflow);
     }
 
@@ -137,6 +153,8 @@ public class CandidateWorkflowService {
         if (workflow.getStatus() != WorkflowStatus.PENDING_ORIENTATION) {
             throw new RuntimeException("Invalid status transition. Current status: " + workflow.getStatus());
         }
+        Map<String, Object> before = AuditSnapshots.workflow(workflow);
+        WorkflowStatus previousStatus = workflow.getStatus();
 
         AdminUser admin = adminUserRepository.findById(adminUserId)
                 .orElseThrow(() -> new RuntimeException("Admin user not found: " + adminUserId));
@@ -152,6 +170,7 @@ public class CandidateWorkflowService {
         }
 
         workflow = workflowRepository.save(workflow);
+        auditWorkflowUpdate(workflow, before, previousStatus);
         return toDTO(workflow);
     }
 
@@ -166,6 +185,8 @@ public class CandidateWorkflowService {
         if (workflow.getStatus() != WorkflowStatus.PENDING_ENROLL) {
             throw new RuntimeException("Invalid status transition. Current status: " + workflow.getStatus());
         }
+        Map<String, Object> before = AuditSnapshots.workflow(workflow);
+        WorkflowStatus previousStatus = workflow.getStatus();
 
         TrainingBatch batch = batchRepository.findById(request.getTrainingBatchId())
                 .orElseThrow(() -> new RuntimeException("Training batch not found: " + request.getTrainingBatchId()));
@@ -189,6 +210,7 @@ public class CandidateWorkflowService {
         batchRepository.save(batch);
 
         workflow = workflowRepository.save(workflow);
+        auditWorkflowUpdate(workflow, before, previousStatus);
         log.info("Candidate {} enrolled in batch {} by admin {}", 
                 workflow.getCandidate().getId(), batch.getBatchCode(), adminUserId);
 
@@ -214,9 +236,13 @@ public class CandidateWorkflowService {
     }
 
     /**
-     * Get workflow statistics
+     * Get workflow statistics (cached until a workflow changes)
      */
     public Map<String, Long> getWorkflowStats() {
+        return statsCache.get(StatsCache.SCREENING, StatsCacheInvalidator.STATS_KEY, this::computeWorkflowStats);
+    }
+
+    private Map<String, Long> computeWorkflowStats() {
         return Map.of(
             "pendingScreening", workflowRepository.countByStatus(WorkflowStatus.PENDING_SCREENING),
             "pendingOrientation", workflowRepository.countByStatus(WorkflowStatus.PENDING_ORIENTATION),
@@ -226,6 +252,16 @@ public class CandidateWorkflowService {
         );
     }
 
+    /**
+     * Audit a workflow transition against the snapshot taken before it and
+     * publish it for the dashboard rollup and stats cache
+     */
+    private void auditWorkflowUpdate(CandidateWorkflow workflow, Map<String, Object> before, WorkflowStatus previousStatus) {
+        eventPublisher.publishEvent(new WorkflowStatusChangedEvent(workflow, previousStatus));
+        auditLogWriter.record("UPDATE", "candidate_workflow", workflow.getId(), workflow.getCandidate().getId(),
+                before, AuditSnapshots.workflow(workflow));
+    }
+
     /**
      * Convert entity to DTO
      */
@@ -3,18 +3,32 @@ package com.magicbus.service;
 import com.magicbus.dto.DashboardDTO;
 import com.magicbus.dto.DashboardDTO.MonthlyOnboardingData;
 import com.magicbus.dto.DashboardDTO.MonthlyWorkflowData;
+import com.magicbus.entity.DashboardMonthlyRollup;
 import com.magicbus.entity.workflow.WorkflowStatus;
 import com.magicbus.repository.CandidateRepository;
+import com.magicbus.repository.DashboardMonthlyRollupRepository;
+import com.magicbus.repository.auth.AdminUserRepository;
 import com.magicbus.repository.workflow.CandidateWorkflowRepository;
+import com.magicbus.service.cache.StatsCache;
+import com.magicbus.service.cache.StatsCacheInvalidator;
+import com.magicbus.service.dashboard.DashboardQueryRunner;
+import com.magicbus.service.dashboard.DashboardRegion;
+import com.magicbus.service.dashboard.DashboardRollupService;
+import com.magicbus.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.format.TextStyle;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -23,109 +37,241 @@ public class DashboardService {
 
     private final CandidateRepository candidateRepository;
     private final CandidateWorkflowRepository workflowRepository;
+    private final DashboardMonthlyRollupRepository rollupRepository;
+    private final DashboardRollupService rollupService;
+    private final AdminUserRepository adminUserRepository;
+    private final DashboardQueryRunner queryRunner;
+    private final StatsCache statsCache;
 
+    /**
+     * Year stats and monthly series. Read from dashboard_monthly_rollup (at
+     * most 12 rows per status), or - with dashboard.rollup.enabled=false -
+     * from two grouped queries over candidates and workflows. Either way the
+     * rows are (month, status, count) and the year totals are their sums.
+     * Cached per year until a candidate or workflow of that year changes;
+     * partial results (see DashboardQueryRunner) are not cached.
+     */
+    @SingleFlight
     public DashboardDTO getDashboardStats(int year) {
-        // Get year-filtered summary stats
-        Long totalCandidates = candidateRepository.countByYear(year);
-        Long completedOnboarding = candidateRepository.countByOnboardingStatusAndYear("COMPLETED", year);
-        Long incompleteOnboarding = candidateRepository.countByOnboardingStatusAndYear("INCOMPLETE", year);
-        
-        Long pendingScreening = workflowRepository.countByStatusAndYear(WorkflowStatus.PENDING_SCREENING, year);
-        Long pendingOrientation = workflowRepository.countByStatusAndYear(WorkflowStatus.PENDING_ORIENTATION, year);
-        Long pendingEnroll = workflowRepository.countByStatusAndYear(WorkflowStatus.PENDING_ENROLL, year);
-        Long enrolled = workflowRepository.countByStatusAndYear(WorkflowStatus.ENROLLED, year);
-        Long dropped = workflowRepository.countByStatusAndYear(WorkflowStatus.ON_HOLD, year); // ON_HOLD shown as Dropped
-        
-        // Get monthly onboarding data
-        List<MonthlyOnboardingData> monthlyOnboarding = getMonthlyOnboardingData(year);
-        
-        // Get monthly workflow data
-        List<MonthlyWorkflowData> monthlyWorkflow = getMonthlyWorkflowData(year);
-        
+        return getCachedStats(year, DashboardRegion.ALL);
+    }
+
+    /**
+     * Year stats for the region of the admin holding authToken: their city if
+     * they have one, else their state; admins without a region get the global
+     * stats. Read from the region's own rollup cells, so it costs the same as
+     * getDashboardStats, and cached per (year, region). Not @SingleFlight - it
+     * would key on the token; StatsCache already makes concurrent requests for
+     * the same (year, region) share one computation.
+     */
+    public DashboardDTO getRegionalDashboardStats(int year, String authToken) {
+        return getCachedStats(year, resolveRegion(authToken));
+    }
+
+    private DashboardDTO getCachedStats(int year, DashboardRegion region) {
+        Object key = region.isAll() ? year : new StatsCacheInvalidator.RegionalKey(year, region);
+        return statsCache.get(StatsCache.DASHBOARD, key, () -> computeDashboardStats(year, region),
+                              DashboardService::isComplete);
+    }
+
+    /**
+     * All-time totals: eight independent counts, run concurrently by
+     * DashboardQueryRunner. Cached until any candidate or workflow changes
+     */
+    @SingleFlight
+    public DashboardDTO getDashboardSummary() {
+        return statsCache.get(StatsCache.DASHBOARD, StatsCacheInvalidator.SUMMARY_KEY, this::computeDashboardSummary,
+                              DashboardService::isComplete);
+    }
+
+    private DashboardDTO computeDashboardStats(int year, DashboardRegion region) {
+        List<Object[]> onboardingRows;
+        List<Object[]> workflowRows;
+        DashboardQueryRunner.Results results = null;
+        if (rollupService.isEnabled()) {
+            onboardingRows = new ArrayList<>();
+            workflowRows = new ArrayList<>();
+            for (DashboardMonthlyRollup cell : rollupRepository.findByRegionStateAndRegionCityAndRollupYear(
+                    region.state(), region.city(), year)) {
+                if (DashboardMonthlyRollup.ONBOARDING.equals(cell.getDimension())) {
+                    onboardingRows.add(new Object[] {cell.getRollupMonth(), cell.getStatus(), cell.getRowCount()});
+                } else if (DashboardMonthlyRollup.WORKFLOW.equals(cell.getDimension())) {
+                    workflowRows.add(new Object[] {cell.getRollupMonth(), WorkflowStatus.valueOf(cell.getStatus()), cell.getRowCount()});
+                }
+            }
+        } else {
+            LocalDateTime from = LocalDateTime.of(year, 1, 1, 0, 0);
+            LocalDateTime to = from.plusYears(1);
+            Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+            if (region.isAll()) {
+                queries.put("onboarding", () -> candidateRepository.countByMonthAndOnboardingStatus(from, to));
+                queries.put("workflow", () -> workflowRepository.countByMonthAndStatus(from, to));
+            } else {
+                queries.put("onboarding", () -> candidateRepository.countByMonthAndOnboardingStatusInRegion(from, to, region.state(), region.city()));
+                queries.put("workflow", () -> workflowRepository.countByMonthAndStatusInRegion(from, to, region.state(), region.city()));
+            }
+            results = queryRunner.run("stats:" + year + ":" + region.state() + ":" + region.city(), queries);
+            // Null when the query failed and there is no earlier value (see DashboardDTO.partial)
+            onboardingRows = results.get("onboarding");
+            workflowRows = results.get("workflow");
+        }
+        OnboardingCounts onboarding = onboardingRows != null ? countOnboarding(onboardingRows) : null;
+        Map<WorkflowStatus, long[]> workflow = workflowRows != null ? countWorkflow(workflowRows) : null;
+
         return DashboardDTO.builder()
-                .totalCandidates(totalCandidates != null ? totalCandidates : 0L)
-                .completedOnboarding(completedOnboarding != null ? completedOnboarding : 0L)
-                .incompleteOnboarding(incompleteOnboarding != null ? incompleteOnboarding : 0L)
-                .pendingScreening(pendingScreening != null ? pendingScreening : 0L)
-                .pendingOrientation(pendingOrientation != null ? pendingOrientation : 0L)
-                .pendingEnroll(pendingEnroll != null ? pendingEnroll : 0L)
-                .enrolled(enrolled != null ? enrolled : 0L)
-                .dropped(dropped != null ? dropped : 0L)
-                .monthlyOnboardingData(monthlyOnboarding)
-                .monthlyWorkflowData(monthlyWorkflow)
+                .totalCandidates(onboarding != null ? onboarding.total : null)
+                .completedOnboarding(onboarding != null ? sum(onboarding.completed) : null)
+                .incompleteOnboarding(onboarding != null ? sum(onboarding.incomplete) : null)
+                .pendingScreening(workflowTotal(workflow, WorkflowStatus.PENDING_SCREENING))
+                .pendingOrientation(workflowTotal(workflow, WorkflowStatus.PENDING_ORIENTATION))
+                .pendingEnroll(workflowTotal(workflow, WorkflowStatus.PENDING_ENROLL))
+                .enrolled(workflowTotal(workflow, WorkflowStatus.ENROLLED))
+                .dropped(workflowTotal(workflow, WorkflowStatus.ON_HOLD)) // ON_HOLD shown as Dropped
+                .monthlyOnboardingData(onboarding != null ? getMonthlyOnboardingData(onboarding) : null)
+                .monthlyWorkflowData(workflow != null ? getMonthlyWorkflowData(workflow) : null)
+                .partial(results != null && results.isPartial() ? Boolean.TRUE : null)
+                .unavailable(results != null && results.isPartial() ? results.failed() : null)
                 .build();
     }
 
-    public DashboardDTO getDashboardSummary() {
-        Long totalCandidates = candidateRepository.count();
-        Long completedOnboarding = candidateRepository.countByOnboardingStatus("COMPLETED");
-        Long incompleteOnboarding = candidateRepository.countByOnboardingStatus("INCOMPLETE");
-        
-        Long pendingScreening = workflowRepository.countByStatus(WorkflowStatus.PENDING_SCREENING);
-        Long pendingOrientation = workflowRepository.countByStatus(WorkflowStatus.PENDING_ORIENTATION);
-        Long pendingEnroll = workflowRepository.countByStatus(WorkflowStatus.PENDING_ENROLL);
-        Long enrolled = workflowRepository.countByStatus(WorkflowStatus.ENROLLED);
-        Long dropped = workflowRepository.countByStatus(WorkflowStatus.ON_HOLD); // ON_HOLD shown as Dropped
+    private DashboardDTO computeDashboardSummary() {
+        Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+        queries.put("totalCandidates", candidateRepository::count);
+        queries.put("completedOnboarding", () -> candidateRepository.countByOnboardingStatus("COMPLETED"));
+        queries.put("incompleteOnboarding", () -> candidateRepository.countByOnboardingStatus("INCOMPLETE"));
+        queries.put("pendingScreening", () -> workflowRepository.countByStatus(WorkflowStatus.PENDING_SCREENING));
+        queries.put("pendingOrientation", () -> workflowRepository.countByStatus(WorkflowStatus.PENDING_ORIENTATION));
+        queries.put("pendingEnroll", () -> workflowRepository.countByStatus(WorkflowStatus.PENDING_ENROLL));
+        queries.put("enrolled", () -> workflowRepository.countByStatus(WorkflowStatus.ENROLLED));
+        queries.put("dropped", () -> workflowRepository.countByStatus(WorkflowStatus.ON_HOLD)); // ON_HOLD shown as Dropped
+        DashboardQueryRunner.Results results = queryRunner.run("summary", queries);
         
+        // A count that failed without an earlier value stays null (see DashboardDTO.partial)
         return DashboardDTO.builder()
-                .totalCandidates(totalCandidates)
-                .completedOnboarding(completedOnboarding)
-                .incompleteOnboarding(incompleteOnboarding)
-                .pendingScreening(pendingScreening != null ? pendingScreening : 0L)
-                .pendingOrientation(pendingOrientation != null ? pendingOrientation : 0L)
-                .pendingEnroll(pendingEnroll != null ? pendingEnroll : 0L)
-                .enrolled(enrolled != null ? enrolled : 0L)
-                .dropped(dropped != null ? dropped : 0L)
+                .totalCandidates(results.get("totalCandidates"))
+                .completedOnboarding(results.get("completedOnboarding"))
+                .incompleteOnboarding(results.get("incompleteOnboarding"))
+                .pendingScreening(results.get("pendingScreening"))
+                .pendingOrientation(results.get("pendingOrientation"))
+                .pendingEnroll(results.get("pendingEnroll"))
+                .enrolled(results.get("enrolled"))
+                .dropped(results.get("dropped"))
+                .partial(results.isPartial() ? Boolean.TRUE : null)
+                .unavailable(results.isPartial() ? results.failed() : null)
                 .build();
     }
 
-    private List<MonthlyOnboardingData> getMonthlyOnboardingData(int year) {
+    private static boolean isComplete(DashboardDTO stats) {
+        return !Boolean.TRUE.equals(stats.getPartial());
+    }
+
+    private DashboardRegion resolveRegion(String authToken) {
+        String token = authToken != null && authToken.startsWith("Bearer ") ? authToken.substring(7) : authToken;
+        if (token == null || token.isBlank()) {
+            throw new RuntimeException("Not logged in");
+        }
+        List<Object[]> rows = adminUserRepository.findRegionByAuthToken(token);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Invalid or expired session");
+        }
+        String state = (String) rows.get(0)[0];
+        String city = (String) rows.get(0)[1];
+        if (state == null) {
+            return DashboardRegion.ALL;
+        }
+        return city != null ? DashboardRegion.of(state, city) : DashboardRegion.ofState(state);
+    }
+
+    private OnboardingCounts countOnboarding(List<Object[]> rows) {
+        OnboardingCounts counts = new OnboardingCounts();
+        for (Object[] row : rows) {
+            int month = ((Number) row[0]).intValue();
+            long count = ((Number) row[2]).longValue();
+            counts.total += count;
+            if ("COMPLETED".equals(row[1])) {
+                counts.completed[month] += count;
+            } else if ("INCOMPLETE".equals(row[1])) {
+                counts.incomplete[month] += count;
+            }
+        }
+        return counts;
+    }
+
+    // Monthly counts per workflow status, indexed by month (1-12)
+    private Map<WorkflowStatus, long[]> countWorkflow(List<Object[]> rows) {
+        Map<WorkflowStatus, long[]> counts = new EnumMap<>(WorkflowStatus.class);
+        for (WorkflowStatus status : WorkflowStatus.values()) {
+            counts.put(status, new long[13]);
+        }
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                int month = ((Number) row[0]).intValue();
+                counts.get((WorkflowStatus) row[1])[month] += ((Number) row[2]).longValue();
+            }
+        }
+        return counts;
+    }
+
+    private List<MonthlyOnboardingData> getMonthlyOnboardingData(OnboardingCounts counts) {
         List<MonthlyOnboardingData> monthlyData = new ArrayList<>();
         
         for (int month = 1; month <= 12; month++) {
-            Long completed = candidateRepository.countByOnboardingStatusAndMonth("COMPLETED", year, month);
-            Long incomplete = candidateRepository.countByOnboardingStatusAndMonth("INCOMPLETE", year, month);
+            long completed = counts.completed[month];
+            long incomplete = counts.incomplete[month];
             
             monthlyData.add(MonthlyOnboardingData.builder()
                     .month(month)
                     .monthName(Month.of(month).getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
-                    .completed(completed != null ? completed : 0L)
-                    .incomplete(incomplete != null ? incomplete : 0L)
-                    .total((completed != null ? completed : 0L) + (incomplete != null ? incomplete : 0L))
+                    .completed(completed)
+                    .incomplete(incomplete)
+                    .total(completed + incomplete)
                     .build());
         }
         
         return monthlyData;
     }
 
-    private List<MonthlyWorkflowData> getMonthlyWorkflowData(int year) {
+    private List<MonthlyWorkflowData> getMonthlyWorkflowData(Map<WorkflowStatus, long[]> counts) {
         List<MonthlyWorkflowData> monthlyData = new ArrayList<>();
         
         for (int month = 1; month <= 12; month++) {
-            Long pendingScreening = workflowRepository.countByStatusAndMonth(WorkflowStatus.PENDING_SCREENING, year, month);
-            Long pendingOrientation = workflowRepository.countByStatusAndMonth(WorkflowStatus.PENDING_ORIENTATION, year, month);
-            Long pendingEnroll = workflowRepository.countByStatusAndMonth(WorkflowStatus.PENDING_ENROLL, year, month);
-            Long enrolled = workflowRepository.countByStatusAndMonth(WorkflowStatus.ENROLLED, year, month);
-            Long dropped = workflowRepository.countByStatusAndMonth(WorkflowStatus.ON_HOLD, year, month); // ON_HOLD shown as Dropped
-            
-            Long total = (pendingScreening != null ? pendingScreening : 0L) +
-                        (pendingOrientation != null ? pendingOrientation : 0L) +
-                        (pendingEnroll != null ? pendingEnroll : 0L) +
-                        (enrolled != null ? enrolled : 0L) +
-                        (dropped != null ? dropped : 0L);
+            long pendingScreening = counts.get(WorkflowStatus.PENDING_SCREENING)[month];
+            long pendingOrientation = counts.get(WorkflowStatus.PENDING_ORIENTATION)[month];
+            long pendingEnroll = counts.get(WorkflowStatus.PENDING_ENROLL)[month];
+            long enrolled = counts.get(WorkflowStatus.ENROLLED)[month];
+            long dropped = counts.get(WorkflowStatus.ON_HOLD)[month]; // ON_HOLD shown as Dropped
             
             monthlyData.add(MonthlyWorkflowData.builder()
                     .month(month)
                     .monthName(Month.of(month).getDisplayName(TextStyle.SHORT, Locale.ENGLISH))
-                    .pendingScreening(pendingScreening != null ? pendingScreening : 0L)
-                    .pendingOrientation(pendingOrientation != null ? pendingOrientation : 0L)
-                    .pendingEnroll(pendingEnroll != null ? pendingEnroll : 0L)
-                    .enrolled(enrolled != null ? enrolled : 0L)
-                    .dropped(dropped != null ? dropped : 0L)
-                    .total(total)
+                    .pendingScreening(pendingScreening)
+                    .pendingOrientation(pendingOrientation)
+                    .pendingEnroll(pendingEnroll)
+                    .enrolled(enrolled)
+                    .dropped(dropped)
+                    .total(pendingScreening + pendingOrientation + pendingEnroll + enrolled + dropped)
                     .build());
         }
         
         return monthlyData;
     }
+
+    private static Long workflowTotal(Map<WorkflowStatus, long[]> workflow, WorkflowStatus status) {
+        return workflow != null ? sum(workflow.get(status)) : null;
+    }
+
+    private static long sum(long[] monthly) {
+        long total = 0;
+        for (long count : monthly) {
+            total += count;
+        }
+        return total;
+    }
+
+    // Candidate counts for one year; the arrays are indexed by month (1-12)
+    private static final class OnboardingCounts {
+        final long[] completed = new long[13];
+        final long[] incomplete = new long[13];
+        long total;
+    }
 }
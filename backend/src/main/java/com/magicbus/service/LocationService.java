@@ -6,6 +6,7 @@ import com.magicbus.entity.State;
 import com.magicbus.entity.City;
 import com.magicbus.repository.StateRepository;
 import com.magicbus.repository.CityRepository;
+import com.magicbus.util.SingleFlight;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +23,7 @@ public class LocationService {
 
     // ==================== STATE OPERATIONS ====================
 
+    @SingleFlight
     public List<StateDTO> getAllStates() {
         return stateRepository.findAllByOrderByStateName()
             .stream()
@@ -29,6 +31,7 @@ public class LocationService {
             .collect(Collectors.toList());
     }
 
+    @SingleFlight
     public List<StateDTO> getActiveStates() {
         return stateRepository.findByIsActiveTrueOrderByStateName()
             .stream()
@@ -109,6 +112,7 @@ public class LocationService {
 
     // ==================== CITY OPERATIONS ====================
 
+    @SingleFlight
     public List<CityDTO> getAllCities() {
         return cityRepository.findAllByOrderByCityName()
             .stream()
@@ -116,6 +120,7 @@ public class LocationService {
             .collect(Collectors.toList());
     }
 
+    @SingleFlight
     public List<CityDTO> getActiveCities() {
         return cityRepository.findByIsActiveTrueOrderByCityName()
             .stream()
@@ -123,6 +128,7 @@ public class LocationService {
             .collect(Collectors.toList());
     }
 
+    @SingleFlight
     public List<CityDTO> getCitiesByState(Long stateId) {
         return cityRepository.findByStateIdOrderByCityName(stateId)
             .stream()
@@ -130,6 +136,7 @@ public class LocationService {
             .collect(Collectors.toList());
     }
 
+    @SingleFlight
     public List<CityDTO> getActiveCitiesByState(Long stateId) {
         return cityRepository.findByStateIdAndIsActiveTrueOrderByCityName(stateId)
             .stream()
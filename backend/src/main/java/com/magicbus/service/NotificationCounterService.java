@@ -0,0 +1,299 @@
+package com.magicbus.service;
+
+import com.magicbus.entity.OnboardingAgingNotification;
+import com.magicbus.repository.OnboardingAgingNotificationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Live counts of active aging notifications for the admin badge and summary.
+ *
+ * Counts live in LongAdders, so reading them costs no queries. They are
+ * loaded from the database at startup, adjusted as notifications are created
+ * and dismissed, and reloaded only after changes made in bulk (set-based
+ * aging, mark-all-read, bulk updates) - always once the transaction has
+ * committed. A periodic resync (notifications.counters.resync-millis) picks
+ * up changes made on other nodes. Adjustments that land while a reload is
+ * querying are applied to the reloaded counts too, so they are not lost.
+ *
+ * Every change is pushed to the admins connected to /notifications/stream
+ * as a "counts" Server-Sent Event carrying the same body as /notifications/summary.
+ * Pushes run on a single background thread and are coalesced, so a slow
+ * client never holds up the request that changed the counts.
+ */
+@Service
+@Slf4j
+public class NotificationCounterService {
+
+    private static final String COUNTS_EVENT = "counts";
+
+    private final OnboardingAgingNotificationRepository notificationRepository;
+    private final long streamTimeoutMillis;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final ExecutorService publisher;
+    private final AtomicBoolean publishPending = new AtomicBoolean();
+
+    // Guards swapping the counters and the adjustments recorded during a reload
+    private final Object countsLock = new Object();
+    private final Object reloadLock = new Object();
+    private volatile Counts counts = new Counts();
+    private List<Consumer<Counts>> adjustedDuringReload;
+
+    // Only touched on the publisher thread
+    private Map<String, Object> lastPublished;
+
+    public NotificationCounterService(
+            OnboardingAgingNotificationRepository notificationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.stream.timeout-millis:1800000}") long streamTimeoutMillis) {
+        this.notificationRepository = notificationRepository;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+
+        Gauge.builder("notifications.stream.connections", emitters, List::size)
+            .description("Admins connected to the notification count stream")
+            .register(meterRegistry);
+        this.publisher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "notification-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        reload();
+    }
+
+    /**
+     * Replace the counters with fresh counts from the database and push them
+     */
+    @Scheduled(fixedDelayString = "${notifications.counters.resync-millis:60000}",
+               initialDelayString = "${notifications.counters.resync-millis:60000}")
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (countsLock) {
+                adjustedDuringReload = new ArrayList<>();
+            }
+            Counts loaded = new Counts();
+            try {
+                for (Object[] row : notificationRepository.getCountsByColor()) {
+                    add(loaded.byColor, (String) row[0], (Long) row[1]);
+                }
+                for (Object[] row : notificationRepository.getCountsByOnboardingStatus()) {
+                    add(loaded.byStatus, (String) row[0], (Long) row[1]);
+                }
+                loaded.unread.add(notificationRepository.countByIsReadFalseAndIsDismissedFalse());
+                loaded.totalActive.add(notificationRepository.countByIsDismissedFalse());
+            } catch (Exception e) {
+                log.error("Failed to reload notification counters", e);
+                synchronized (countsLock) {
+                    adjustedDuringReload = null;
+                }
+                return;
+            }
+            synchronized (countsLock) {
+                adjustedDuringReload.forEach(adjustment -> adjustment.accept(loaded));
+                adjustedDuringReload = null;
+                counts = loaded;
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Reload once the current transaction commits - for changes made in bulk
+     * (set-based aging runs, mark-all-read)
+     */
+    public void reloadAfterCommit() {
+        afterCommit(this::reload);
+    }
+
+    /**
+     * Account for notifications that were just created
+     */
+    public void created(List<OnboardingAgingNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Map<String, Long> byColor = new HashMap<>();
+        Map<String, Long> byStatus = new HashMap<>();
+        long unread = 0;
+        for (OnboardingAgingNotification notification : notifications) {
+            byColor.merge(notification.getAgingColor(), 1L, Long::sum);
+            byStatus.merge(notification.getOnboardingStatus(), 1L, Long::sum);
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                unread++;
+            }
+        }
+        long total = notifications.size();
+        long newUnread = unread;
+        afterCommit(() -> adjust(current -> {
+            byColor.forEach((color, n) -> add(current.byColor, color, n));
+            byStatus.forEach((status, n) -> add(current.byStatus, status, n));
+            current.totalActive.add(total);
+            current.unread.add(newUnread);
+        }));
+    }
+
+    /**
+     * Account for a notification that was just dismissed
+     */
+    public void dismissed(OnboardingAgingNotification notification) {
+        String color = notification.getAgingColor();
+        String status = notification.getOnboardingStatus();
+        boolean unread = !Boolean.TRUE.equals(notification.getIsRead());
+        afterCommit(() -> adjust(current -> {
+            add(current.byColor, color, -1);
+            add(current.byStatus, status, -1);
+            current.totalActive.decrement();
+            if (unread) {
+                current.unread.decrement();
+            }
+        }));
+    }
+
+    public long getUnreadCount() {
+        return counts.unread.sum();
+    }
+
+    /**
+     * Same shape as the old query-based summary: byColor, byStatus, unreadCount, totalActive
+     */
+    public Map<String, Object> getSummary() {
+        Counts current = counts;
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("byColor", nonZero(current.byColor));
+        summary.put("byStatus", nonZero(current.byStatus));
+        summary.put("unreadCount", current.unread.sum());
+        summary.put("totalActive", current.totalActive.sum());
+        return summary;
+    }
+
+    /**
+     * Open a count stream for one admin; the current counts are sent straight away
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        try {
+            emitter.send(SseEmitter.event().name(COUNTS_EVENT).data(getSummary()));
+        } catch (Exception e) {
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdownNow();
+    }
+
+    private void adjust(Consumer<Counts> adjustment) {
+        synchronized (countsLock) {
+            adjustment.accept(counts);
+            if (adjustedDuringReload != null) {
+                adjustedDuringReload.add(adjustment);
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Schedule a push of the current counts; changes made before the push
+     * starts share it
+     */
+    private void publish() {
+        if (!publishPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            publisher.execute(this::sendCounts);
+        } catch (RejectedExecutionException e) {
+            publishPending.set(false);
+        }
+    }
+
+    /**
+     * Push the counts to all connected admins if they changed since the last push
+     */
+    private void sendCounts() {
+        publishPending.set(false);
+        Map<String, Object> summary = getSummary();
+        if (summary.equals(lastPublished)) {
+            return;
+        }
+        lastPublished = summary;
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(COUNTS_EVENT).data(summary));
+            } catch (Exception e) {
+                // Client went away - the container completes the emitter
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void add(ConcurrentHashMap<String, LongAdder> counters, String key, long delta) {
+        if (key != null) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static Map<String, Long> nonZero(Map<String, LongAdder> counters) {
+        Map<String, Long> values = new HashMap<>();
+        counters.forEach((key, adder) -> {
+            long value = adder.sum();
+            if (value > 0) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    private static final class Counts {
+        final ConcurrentHashMap<String, LongAdder> byColor = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        final LongAdder unread = new LongAdder();
+        final LongAdder totalActive = new LongAdder();
+    }
+}
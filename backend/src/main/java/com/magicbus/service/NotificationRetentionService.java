@@ -0,0 +1,211 @@
+package com.magicbus.service;
+
+import com.magicbus.repository.OnboardingAgingNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retention for onboarding_aging_notifications.
+ *
+ * delete mode (default, and always on H2): dismissed notifications not
+ * touched for notifications.retention.dismissed-days are removed in chunks of
+ * notifications.retention.chunk-size, each chunk in its own short
+ * transaction, up to notifications.retention.max-chunks per run.
+ *
+ * partition mode (PostgreSQL 14+, after V11__Aging_Notification_Partitioning_Optional.sql):
+ * the table is range-partitioned on (is_dismissed, updated_at). Active rows
+ * all live in one partition, so active-notification queries never read
+ * dismissed history; dismissing a row moves it into the partition of the
+ * month it was dismissed in. The app creates the upcoming monthly partitions
+ * at startup and on every run, and drops a month once all of it is older
+ * than notifications.retention.dismissed-days - the same rows delete mode
+ * would remove, a month at a time. A partition is first detached
+ * CONCURRENTLY, so notification queries are never blocked behind an ACCESS
+ * EXCLUSIVE lock on the parent. Falls back to delete mode if the table is
+ * not partitioned.
+ *
+ * Metrics: notifications.retention.rows (rows removed per run),
+ * notifications.retention.run (timer), notifications.retention.partitions.dropped.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionService {
+
+    private static final String TABLE = "onboarding_aging_notifications";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final OnboardingAgingNotificationRepository notificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final String mode;
+    private final int dismissedDays;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final int partitionsAhead;
+
+    private final DistributionSummary rowsPerRun;
+    private final Timer runTimer;
+    private final Counter partitionsDropped;
+
+    public NotificationRetentionService(
+            OnboardingAgingNotificationRepository notificationRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.retention.mode:delete}") String mode,
+            @Value("${notifications.retention.dismissed-days:30}") int dismissedDays,
+            @Value("${notifications.retention.chunk-size:1000}") int chunkSize,
+            @Value("${notifications.retention.max-chunks:1000}") int maxChunks,
+            @Value("${notifications.retention.partitions-ahead:2}") int partitionsAhead) {
+        this.notificationRepository = notificationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = mode;
+        this.dismissedDays = dismissedDays;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.partitionsAhead = partitionsAhead;
+
+        this.rowsPerRun = DistributionSummary.builder("notifications.retention.rows")
+            .description("onboarding_aging_notifications rows removed per retention run")
+            .register(meterRegistry);
+        this.runTimer = Timer.builder("notifications.retention.run")
+            .description("onboarding_aging_notifications retention run duration")
+            .register(meterRegistry);
+        this.partitionsDropped = Counter.builder("notifications.retention.partitions.dropped")
+            .description("onboarding_aging_notifications monthly partitions dropped")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Make sure the upcoming monthly partitions exist before rows arrive
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareOnStartup() {
+        if (isPartitionMode()) {
+            createUpcomingPartitions();
+        }
+    }
+
+    /**
+     * Run one retention pass and return the number of rows removed
+     */
+    public int purge() {
+        long start = System.nanoTime();
+        try {
+            int removed = isPartitionMode() ? rotatePartitions() : deleteInChunks();
+            rowsPerRun.record(removed);
+            return removed;
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int deleteInChunks() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(dismissedDays);
+        int removed = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            List<Long> ids = notificationRepository.findPurgeableDismissedIds(cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            notificationRepository.deleteAllByIdInBatch(ids);
+            removed += ids.size();
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            log.info("Purged {} dismissed aging notifications", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Create the next monthly partitions and drop the months whose dismissed
+     * rows are all past retention. Returns the number of rows removed -
+     * approximate (from table statistics).
+     */
+    private int rotatePartitions() {
+        createUpcomingPartitions();
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(dismissedDays);
+        List<String> partitions = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ?", String.class, TABLE);
+
+        int removed = 0;
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;  // the active partition
+            }
+            YearMonth month;
+            try {
+                month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            } catch (Exception e) {
+                continue;
+            }
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            Long rows = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE relname = ?", Long.class, partition);
+            // Runs outside a transaction (required by CONCURRENTLY); only takes
+            // SHARE UPDATE EXCLUSIVE on the parent, so reads and writes carry on
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition + " CONCURRENTLY");
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+            partitionsDropped.increment();
+            removed += rows != null ? rows.intValue() : 0;
+            log.info("Dropped notification partition {} (~{} rows)", partition, rows);
+        }
+        return removed;
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int month = 0; month <= partitionsAhead; month++) {
+            YearMonth from = current.plusMonths(month);
+            try {
+                jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s%s PARTITION OF %s FOR VALUES FROM (true, '%s') TO (true, '%s')",
+                    PARTITION_PREFIX, from.format(PARTITION_SUFFIX), TABLE, from.atDay(1), from.plusMonths(1).atDay(1)));
+            } catch (Exception e) {
+                // Another node created it at the same moment
+                log.warn("Could not create notification partition for {}: {}", from, e.getMessage());
+            }
+        }
+    }
+
+    private boolean isPartitionMode() {
+        if (!"partition".equalsIgnoreCase(mode)) {
+            return false;
+        }
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table t JOIN pg_class c ON c.oid = t.partrelid " +
+                "WHERE c.relname = ?", Integer.class, TABLE);
+            if (count != null && count > 0) {
+                return true;
+            }
+        } catch (Exception e) {
+            log.debug("Partition catalog not available: {}", e.getMessage());
+        }
+        log.warn("notifications.retention.mode=partition but {} is not partitioned - deleting in chunks", TABLE);
+        return false;
+    }
+}
@@ -2,18 +2,30 @@ package com.magicbus.service;
 
 import com.magicbus.entity.Candidate;
 import com.magicbus.entity.OnboardingAgingNotification;
+import com.magicbus.entity.SchedulerWatermark;
 import com.magicbus.repository.CandidateRepository;
 import com.magicbus.repository.OnboardingAgingNotificationRepository;
+import com.magicbus.repository.SchedulerWatermarkRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +34,29 @@ public class OnboardingAgingService {
     
     private final CandidateRepository candidateRepository;
     private final OnboardingAgingNotificationRepository notificationRepository;
+    private final SchedulerWatermarkRepository watermarkRepository;
+    private final NotificationCounterService counterService;
+    private final NotificationRetentionService retentionService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // incremental (default), full or sql
+    @Value("${aging.mode:incremental}")
+    private String agingMode;
+    
+    @Value("${aging.incremental.overlap-minutes:5}")
+    private long overlapMinutes;
+    
+    @Value("${notifications.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${notifications.page.max-size:200}")
+    private int maxPageSize;
+    
+    private static final String AGING_WATERMARK = "onboarding-aging";
+    private static final Set<String> AGING_COLORS = Set.of("RED", "AMBER", "GREEN");
+    private static final int AGING_PAGE_SIZE = 1000;
     
     // Aging thresholds
     private static final int GREEN_THRESHOLD = 1;  // 1 day - recently completed/started
@@ -29,10 +64,136 @@ public class OnboardingAgingService {
     private static final int RED_THRESHOLD = 5;    // 5+ days - critical
     
     /**
-     * Calculate aging for all candidates and create/update notifications
+     * Create missing aging notifications.
+     * aging.mode=incremental (default) only looks at candidates whose aging
+     * bucket could have changed since the last run; aging.mode=full re-checks
+     * every candidate; aging.mode=sql does the whole run as one INSERT ... SELECT
+     * in the database.
+     *
+     * All modes skip a level that already has an active notification, so they
+     * differ on dismissed ones: full and sql see every candidate on every run
+     * and create a dismissed notification again each time, while incremental
+     * only re-evaluates a candidate when its level can change, so a dismissed
+     * notification stays dismissed until the candidate reaches its next level.
      */
     @Transactional
     public void calculateAndUpdateAging() {
+        if ("full".equalsIgnoreCase(agingMode)) {
+            calculateFullScan();
+        } else if ("sql".equalsIgnoreCase(agingMode)) {
+            calculateSetBased();
+            // One INSERT ... SELECT - no per-notification deltas to apply
+            counterService.reloadAfterCommit();
+        } else {
+            calculateIncremental();
+        }
+    }
+    
+    /**
+     * Incremental aging against a persisted watermark.
+     *
+     * A candidate's level only changes when it is created, and when its age
+     * reaches AMBER_THRESHOLD and RED_THRESHOLD days, so a run covering
+     * (watermark, now] only needs candidates whose createdAt, createdAt + 3 days
+     * or createdAt + 5 days falls in that window - three created_at ranges.
+     * The window starts aging.incremental.overlap-minutes before the watermark
+     * to pick up rows committed late; re-evaluating a candidate is harmless.
+     * The first run (no watermark yet) evaluates every candidate once.
+     */
+    private void calculateIncremental() {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<SchedulerWatermark> watermark = watermarkRepository.findById(AGING_WATERMARK);
+        
+        AgingRun run;
+        if (watermark.isEmpty()) {
+            log.info("No aging watermark yet - evaluating all candidates once");
+            run = evaluatePages(afterId -> candidateRepository.findAgingInputsAfter(
+                afterId, PageRequest.of(0, AGING_PAGE_SIZE)), now);
+        } else {
+            LocalDateTime from = watermark.get().getWatermark().minusMinutes(overlapMinutes);
+            run = evaluatePages(afterId -> candidateRepository.findAgingInputsCreatedIn(afterId,
+                from, now,
+                from.minusDays(AMBER_THRESHOLD), now.minusDays(AMBER_THRESHOLD),
+                from.minusDays(RED_THRESHOLD), now.minusDays(RED_THRESHOLD),
+                PageRequest.of(0, AGING_PAGE_SIZE)), now);
+        }
+        
+        watermarkRepository.save(SchedulerWatermark.builder()
+            .jobName(AGING_WATERMARK)
+            .watermark(now)
+            .updatedAt(LocalDateTime.now())
+            .build());
+        
+        log.info("Aging run complete - evaluated {} candidates, created {} notifications",
+            run.evaluated(), run.created());
+    }
+    
+    /**
+     * Set-based aging: classification and notification inserts happen in a
+     * single statement, so no candidate rows are loaded into Java
+     */
+    private void calculateSetBased() {
+        int created = notificationRepository.insertMissingNotifications(
+            LocalDateTime.now(), AMBER_THRESHOLD, RED_THRESHOLD);
+        log.info("Set-based aging run complete - created {} notifications", created);
+    }
+    
+    /**
+     * Evaluate candidates page by page (keyset on id), with one existence query
+     * and one batched insert per page
+     */
+    private AgingRun evaluatePages(Function<Long, List<Object[]>> pageLoader, LocalDateTime now) {
+        int evaluated = 0;
+        int created = 0;
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = pageLoader.apply(afterId);
+            if (page.isEmpty()) {
+                break;
+            }
+            
+            List<Long> candidateIds = new ArrayList<>(page.size());
+            for (Object[] row : page) {
+                candidateIds.add((Long) row[0]);
+            }
+            Set<String> activeLevels = new HashSet<>();
+            for (Object[] row : notificationRepository.findActiveLevels(candidateIds)) {
+                activeLevels.add(row[0] + ":" + row[1]);
+            }
+            
+            List<OnboardingAgingNotification> notifications = new ArrayList<>();
+            for (Object[] row : page) {
+                Long candidateId = (Long) row[0];
+                afterId = candidateId;
+                LocalDateTime createdAt = (LocalDateTime) row[5];
+                if (createdAt == null) {
+                    continue;
+                }
+                evaluated++;
+                int days = (int) ChronoUnit.DAYS.between(createdAt, now);
+                String onboardingStatus = (String) row[4];
+                AgingInfo agingInfo = determineAgingLevel(days, onboardingStatus);
+                if (!activeLevels.contains(candidateId + ":" + agingInfo.level)) {
+                    notifications.add(newNotification(candidateId, (String) row[1], (String) row[2],
+                        (String) row[3], onboardingStatus, days, agingInfo));
+                }
+            }
+            
+            notificationRepository.saveAll(notifications);
+            counterService.created(notifications);
+            created += notifications.size();
+            entityManager.flush();
+            entityManager.clear();
+        } while (page.size() == AGING_PAGE_SIZE);
+        
+        return new AgingRun(evaluated, created);
+    }
+    
+    /**
+     * Calculate aging for all candidates and create/update notifications
+     */
+    private void calculateFullScan() {
         log.info("=== Starting Onboarding Aging Calculation ===");
         
         List<Candidate> allCandidates = candidateRepository.findAll();
@@ -56,20 +217,12 @@ public class OnboardingAgingService {
             
             if (!exists) {
                 // Create new notification
-                OnboardingAgingNotification notification = OnboardingAgingNotification.builder()
-                    .candidateId(candidate.getId())
-                    .candidateName(candidate.getFirstName() + " " + candidate.getLastName())
-                    .phoneNumber(candidate.getPhoneNumber())
-                    .onboardingStatus(onboardingStatus)
-                    .daysSinceCreated((int) daysSinceCreated)
-                    .agingLevel(agingInfo.level)
-                    .agingColor(agingInfo.color)
-                    .message(agingInfo.message)
-                    .isRead(false)
-                    .isDismissed(false)
-                    .build();
+                OnboardingAgingNotification notification = newNotification(candidate.getId(),
+                    candidate.getFirstName(), candidate.getLastName(), candidate.getPhoneNumber(),
+                    onboardingStatus, (int) daysSinceCreated, agingInfo);
                 
                 notificationRepository.save(notification);
+                counterService.created(List.of(notification));
                 
                 log.info("Created notification for candidate {} (ID: {}) - Status: {}, Days: {}, Color: {}",
                     notification.getCandidateName(), 
@@ -102,6 +255,23 @@ public class OnboardingAgingService {
         log.info("=== Aging Calculation Complete ===");
     }
     
+    private OnboardingAgingNotification newNotification(Long candidateId, String firstName, String lastName,
+                                                        String phoneNumber, String onboardingStatus,
+                                                        int daysSinceCreated, AgingInfo agingInfo) {
+        return OnboardingAgingNotification.builder()
+            .candidateId(candidateId)
+            .candidateName(firstName + " " + lastName)
+            .phoneNumber(phoneNumber)
+            .onboardingStatus(onboardingStatus)
+            .daysSinceCreated(daysSinceCreated)
+            .agingLevel(agingInfo.level)
+            .agingColor(agingInfo.color)
+            .message(agingInfo.message)
+            .isRead(false)
+            .isDismissed(false)
+            .build();
+    }
+    
     /**
      * Determine aging level based on days and status
      */
@@ -143,31 +313,44 @@ public class OnboardingAgingService {
     }
     
     /**
-     * Get unread notification count
+     * Get unread notification count (from the live counters)
      */
     public Long getUnreadCount() {
-        return notificationRepository.countByIsReadFalseAndIsDismissedFalse();
-    }
-    
-    /**
-     * Get all active notifications
-     */
-    public List<OnboardingAgingNotification> getAllActiveNotifications() {
-        return notificationRepository.findAllActiveNotifications();
-    }
-    
-    /**
-     * Get notifications by color filter
-     */
-    public List<OnboardingAgingNotification> getNotificationsByColor(String color) {
-        return notificationRepository.findByAgingColorAndIsDismissedFalseOrderByDaysSinceCreatedDesc(color);
+        return counterService.getUnreadCount();
     }
     
     /**
-     * Get notifications by onboarding status filter
+     * One page of active notifications, most severe and oldest first,
+     * optionally filtered by aging color or onboarding status.
+     * Pass the previous page's nextCursor to continue; limit is capped at
+     * notifications.page.max-size.
      */
-    public List<OnboardingAgingNotification> getNotificationsByStatus(String status) {
-        return notificationRepository.findByOnboardingStatusAndIsDismissedFalseOrderByDaysSinceCreatedDesc(status);
+    public NotificationPage getActiveNotifications(String color, String status, String cursor, Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        PageCursor after = cursor == null || cursor.isBlank() ? PageCursor.FIRST : PageCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, size + 1);
+        
+        List<OnboardingAgingNotification> rows;
+        if (color != null) {
+            if (!AGING_COLORS.contains(color)) {
+                return new NotificationPage(List.of(), null);
+            }
+            rows = notificationRepository.findActivePageBySeverity(OnboardingAgingNotification.severityRankOf(color),
+                after.rank(), after.days(), after.id(), page);
+        } else if (status != null) {
+            rows = notificationRepository.findActivePageByStatus(status,
+                after.rank(), after.days(), after.id(), page);
+        } else {
+            rows = notificationRepository.findActivePage(after.rank(), after.days(), after.id(), page);
+        }
+        
+        if (rows.size() <= size) {
+            return new NotificationPage(rows, null);
+        }
+        rows = rows.subList(0, size);
+        OnboardingAgingNotification last = rows.get(size - 1);
+        return new NotificationPage(rows,
+            new PageCursor(last.getSeverityRank(), last.getDaysSinceCreated(), last.getId()).encode());
     }
     
     /**
@@ -175,7 +358,9 @@ public class OnboardingAgingService {
      */
     @Transactional
     public int markAllAsRead() {
-        return notificationRepository.markAllAsRead();
+        int updated = notificationRepository.markAllAsRead();
+        counterService.reloadAfterCommit();
+        return updated;
     }
     
     /**
@@ -183,44 +368,53 @@ public class OnboardingAgingService {
      */
     @Transactional
     public int dismissNotification(Long id) {
-        return notificationRepository.dismissNotification(id);
+        Optional<OnboardingAgingNotification> notification = notificationRepository.findById(id);
+        int updated = notificationRepository.dismissNotification(id);
+        if (updated > 0 && notification.isPresent()) {
+            counterService.dismissed(notification.get());
+        }
+        return updated;
     }
     
     /**
-     * Get summary statistics
+     * Get summary statistics (from the live counters - no queries)
      */
     public Map<String, Object> getSummary() {
-        Map<String, Object> summary = new HashMap<>();
-        
-        List<Object[]> colorCounts = notificationRepository.getCountsByColor();
-        Map<String, Long> byColor = new HashMap<>();
-        for (Object[] row : colorCounts) {
-            byColor.put((String) row[0], (Long) row[1]);
-        }
-        
-        List<Object[]> statusCounts = notificationRepository.getCountsByOnboardingStatus();
-        Map<String, Long> byStatus = new HashMap<>();
-        for (Object[] row : statusCounts) {
-            byStatus.put((String) row[0], (Long) row[1]);
-        }
-        
-        summary.put("byColor", byColor);
-        summary.put("byStatus", byStatus);
-        summary.put("unreadCount", getUnreadCount());
-        summary.put("totalActive", notificationRepository.findAllActiveNotifications().size());
-        
-        return summary;
+        return counterService.getSummary();
     }
     
     /**
-     * Clean up old dismissed notifications (older than 30 days)
+     * Clean up old dismissed notifications - chunked deletes, or dropping
+     * monthly partitions (see NotificationRetentionService)
      */
-    @Transactional
     public int cleanupOldNotifications() {
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        return notificationRepository.deleteOldDismissedNotifications(thirtyDaysAgo);
+        return retentionService.purge();
     }
     
     // Helper class for aging info
     private record AgingInfo(String level, String color, String message) {}
+    
+    private record AgingRun(int evaluated, int created) {}
+    
+    public record NotificationPage(List<OnboardingAgingNotification> notifications, String nextCursor) {}
+    
+    // Opaque page cursor: the sort key of the last row returned
+    private record PageCursor(int rank, int days, long id) {
+        
+        static final PageCursor FIRST = new PageCursor(Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE);
+        
+        String encode() {
+            String key = rank + ":" + days + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static PageCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                return new PageCursor(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
 }
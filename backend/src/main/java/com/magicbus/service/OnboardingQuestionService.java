@@ -7,6 +7,7 @@ import com.magicbus.entity.Candidate;
 import com.magicbus.entity.CandidateAnswer;
 import com.magicbus.entity.OnboardingProgress;
 import com.magicbus.entity.OnboardingQuestion;
+import com.magicbus.event.OnboardingStatusChangedEvent;
 import com.magicbus.repository.CandidateAnswerRepository;
 import com.magicbus.repository.CandidateRepository;
 import com.magicbus.repository.OnboardingProgressRepository;
@@ -16,6 +17,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,6 +37,7 @@ public class OnboardingQuestionService {
     private final CandidateRepository candidateRepository;
     private final OnboardingProgressRepository progressRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all active onboarding questions
@@ -151,9 +154,11 @@ public class OnboardingQuestionService {
         }
         
         // Update candidate status
+        String previousOnboardingStatus = candidate.getOnboardingStatus();
         candidate.setOnboardingStatus("COMPLETED");
         candidate.setUpdatedAt(LocalDateTime.now());
         candidateRepository.save(candidate);
+        eventPublisher.publishEvent(new OnboardingStatusChangedEvent(candidate, previousOnboardingStatus));
     }
 
     /**
@@ -5,12 +5,17 @@ import com.magicbus.dto.OnboardingResponseDTO;
 import com.magicbus.entity.*;
 import com.magicbus.entity.workflow.CandidateWorkflow;
 import com.magicbus.entity.workflow.WorkflowStatus;
+import com.magicbus.event.CandidateCreatedEvent;
+import com.magicbus.event.WorkflowCreatedEvent;
 import com.magicbus.repository.CandidateRepository;
 import com.magicbus.repository.EducationDetailsRepository;
 import com.magicbus.repository.PersonalDetailsRepository;
 import com.magicbus.repository.SkillAssessmentRepository;
 import com.magicbus.repository.workflow.CandidateWorkflowRepository;
+import com.magicbus.service.audit.AuditLogWriter;
+import com.magicbus.service.audit.AuditSnapshots;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +23,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -28,18 +35,27 @@ public class OnboardingService {
     private final PersonalDetailsRepository personalDetailsRepository;
     private final SkillAssessmentRepository skillAssessmentRepository;
     private final CandidateWorkflowRepository candidateWorkflowRepository;
+    private final CandidateContactFilter candidateContactFilter;
+    private final AuditLogWriter auditLogWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OnboardingService(
             CandidateRepository candidateRepository,
             EducationDetailsRepository educationDetailsRepository,
             PersonalDetailsRepository personalDetailsRepository,
             SkillAssessmentRepository skillAssessmentRepository,
-            CandidateWorkflowRepository candidateWorkflowRepository) {
+            CandidateWorkflowRepository candidateWorkflowRepository,
+            CandidateContactFilter candidateContactFilter,
+            AuditLogWriter auditLogWriter,
+            ApplicationEventPublisher eventPublisher) {
         this.candidateRepository = candidateRepository;
         this.educationDetailsRepository = educationDetailsRepository;
         this.personalDetailsRepository = personalDetailsRepository;
         this.skillAssessmentRepository = skillAssessmentRepository;
         this.candidateWorkflowRepository = candidateWorkflowRepository;
+        this.candidateContactFilter = candidateContactFilter;
+        this.auditLogWriter = auditLogWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -47,82 +63,7 @@ public class OnboardingService {
         try {
             log.info("Starting onboarding for candidate: {} {}", request.getFirstName(), request.getLastName());
 
-            // Parse date of birth
-            LocalDate dob = LocalDate.parse(request.getDateOfBirth());
-
-            // Create Candidate entity
-            Candidate candidate = Candidate.builder()
-                    .firstName(request.getFirstName())
-                    .lastName(request.getLastName())
-                    .email(request.getEmail())
-                    .phoneNumber(request.getPhone())
-                    .dateOfBirth(dob)
-                    .gender(request.getGender())
-                    .addressLine1(request.getAddress())
-                    .city(request.getCity())
-                    .state(request.getState())
-                    .pincode(request.getPincode())
-                    .status("ACTIVE")
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-
-            Candidate savedCandidate = candidateRepository.save(candidate);
-            log.info("Candidate created with ID: {}", savedCandidate.getId());
-
-            // Create Education Details
-            if (request.getEducation10th() != null) {
-                EducationDetails eduDetails = EducationDetails.builder()
-                        .candidate(savedCandidate)
-                        .tenthBoard(request.getEducation10th())
-                        .tenthPercentage(parsePercentage(request.getScore10th()))
-                        .twelfthBoard(request.getEducation12th())
-                        .twelfthPercentage(parsePercentage(request.getScore12th()))
-                        .graduationDegree(request.getGraduationDegree())
-                        .graduationSpecialization(request.getGraduationField())
-                        .createdAt(LocalDateTime.now())
-                        .updatedAt(LocalDateTime.now())
-                        .build();
-
-                educationDetailsRepository.save(eduDetails);
-                log.info("Education details saved for candidate ID: {}", savedCandidate.getId());
-            }
-
-            // Create Personal Details
-            PersonalDetails personalDetails = PersonalDetails.builder()
-                    .candidate(savedCandidate)
-                    .employmentStatus("UNEMPLOYED")
-                    .createdAt(LocalDateTime.now())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-
-            personalDetailsRepository.save(personalDetails);
-            log.info("Personal details saved for candidate ID: {}", savedCandidate.getId());
-
-            // Create Skill Assessments
-            if (request.getSkills() != null && !request.getSkills().isEmpty()) {
-                for (String skill : request.getSkills()) {
-                    SkillAssessment skillAssessment = SkillAssessment.builder()
-                            .candidate(savedCandidate)
-                            .skillName(skill)
-                            .proficiencyLevel("INTERMEDIATE") // Default level
-                            .createdAt(LocalDateTime.now())
-                            .updatedAt(LocalDateTime.now())
-                            .build();
-
-                    skillAssessmentRepository.save(skillAssessment);
-                }
-                log.info("Skill assessments saved for candidate ID: {} ({} skills)", 
-                        savedCandidate.getId(), request.getSkills().size());
-            }
-
-            // Create workflow entry for the candidate (PENDING_SCREENING status)
-            CandidateWorkflow workflow = CandidateWorkflow.builder()
-                    .candidate(savedCandidate)
-                    .status(WorkflowStatus.PENDING_SCREENING)
-                    .build();
-            candidateWorkflowRepository.save(workflow);
-            log.info("Workflow created for candidate ID: {} with status PENDING_SCREENING", savedCandidate.getId());
+            Candidate savedCandidate = persistCandidate(request);
 
             // Build response
             return OnboardingResponseDTO.builder()
@@ -141,6 +82,98 @@ public class OnboardingService {
         }
     }
 
+    /**
+     * Save a candidate with its education, personal details, skills and workflow
+     * in the caller's transaction. Inserts are left to the flush, so several
+     * candidates saved in one transaction go out as JDBC batches.
+     */
+    public Candidate persistCandidate(OnboardingRequestDTO request) {
+        // Parse date of birth
+        LocalDate dob = LocalDate.parse(request.getDateOfBirth());
+
+        // Create Candidate entity
+        Candidate candidate = Candidate.builder()
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .email(request.getEmail())
+                .phoneNumber(request.getPhone())
+                .dateOfBirth(dob)
+                .gender(request.getGender())
+                .addressLine1(request.getAddress())
+                .city(request.getCity())
+                .state(request.getState())
+                .pincode(request.getPincode())
+                .status("ACTIVE")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        Candidate savedCandidate = candidateRepository.save(candidate);
+        candidateContactFilter.record(savedCandidate);
+        eventPublisher.publishEvent(new CandidateCreatedEvent(savedCandidate));
+        auditLogWriter.record("CREATE", "candidate", savedCandidate.getId(), savedCandidate.getId(),
+                null, AuditSnapshots.candidate(savedCandidate));
+        log.info("Candidate created with ID: {}", savedCandidate.getId());
+
+        // Create Education Details
+        if (request.getEducation10th() != null) {
+            EducationDetails eduDetails = EducationDetails.builder()
+                    .candidate(savedCandidate)
+                    .tenthBoard(request.getEducation10th())
+                    .tenthPercentage(parsePercentage(request.getScore10th()))
+                    .twelfthBoard(request.getEducation12th())
+                    .twelfthPercentage(parsePercentage(request.getScore12th()))
+                    .graduationDegree(request.getGraduationDegree())
+                    .graduationSpecialization(request.getGraduationField())
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build();
+
+            educationDetailsRepository.save(eduDetails);
+            log.debug("Education details saved for candidate ID: {}", savedCandidate.getId());
+        }
+
+        // Create Personal Details
+        PersonalDetails personalDetails = PersonalDetails.builder()
+                .candidate(savedCandidate)
+                .employmentStatus("UNEMPLOYED")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        personalDetailsRepository.save(personalDetails);
+        log.debug("Personal details saved for candidate ID: {}", savedCandidate.getId());
+
+        // Create Skill Assessments
+        if (request.getSkills() != null && !request.getSkills().isEmpty()) {
+            List<SkillAssessment> skillAssessments = new ArrayList<>(request.getSkills().size());
+            for (String skill : request.getSkills()) {
+                skillAssessments.add(SkillAssessment.builder()
+                        .candidate(savedCandidate)
+                        .skillName(skill)
+                        .proficiencyLevel("INTERMEDIATE") // Default level
+                        .assessmentDate(LocalDateTime.now())
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build());
+            }
+            skillAssessmentRepository.saveAll(skillAssessments);
+            log.debug("Skill assessments saved for candidate ID: {} ({} skills)",
+                    savedCandidate.getId(), request.getSkills().size());
+        }
+
+        // Create workflow entry for the candidate (PENDING_SCREENING status)
+        CandidateWorkflow workflow = CandidateWorkflow.builder()
+                .candidate(savedCandidate)
+                .status(WorkflowStatus.PENDING_SCREENING)
+                .build();
+        candidateWorkflowRepository.save(workflow);
+        eventPublisher.publishEvent(new WorkflowCreatedEvent(workflow));
+        log.debug("Workflow created for candidate ID: {} with status PENDING_SCREENING", savedCandidate.getId());
+
+        return savedCandidate;
+    }
+
     private BigDecimal parsePercentage(String percentage) {
         if (percentage == null || percentage.isEmpty()) {
             return BigDecimal.ZERO;
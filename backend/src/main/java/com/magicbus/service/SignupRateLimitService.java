@@ -0,0 +1,119 @@
+package com.magicbus.service;
+
+import com.magicbus.util.SlidingWindowRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Throttling for the public OTP endpoints (/signup/send-otp, /signup/verify-otp).
+ *
+ * - per-contact and per-client-IP sliding window limits, exact per key; at
+ *   most signup.rate-limit.max-keys keys per limiter, new keys beyond that
+ *   are rejected
+ * - a global cap on concurrent OTP requests, so overload is shed with 429
+ *   before any DB connection is taken
+ *
+ * Accept/reject counts are published as signup.throttle{endpoint,outcome,reason}.
+ */
+@Service
+@Slf4j
+public class SignupRateLimitService {
+
+    public static final String SEND_OTP = "send-otp";
+    public static final String VERIFY_OTP = "verify-otp";
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final SlidingWindowRateLimiter sendOtpContactLimiter;
+    private final SlidingWindowRateLimiter verifyOtpContactLimiter;
+    private final SlidingWindowRateLimiter ipLimiter;
+    private final Semaphore inFlight;
+
+    private final Counter sendAccepted;
+    private final Counter verifyAccepted;
+    private final Counter sendRejectedContact;
+    private final Counter verifyRejectedContact;
+    private final Counter sendRejectedIp;
+    private final Counter verifyRejectedIp;
+    private final Counter sendRejectedConcurrency;
+    private final Counter verifyRejectedConcurrency;
+
+    public SignupRateLimitService(
+            MeterRegistry meterRegistry,
+            @Value("${signup.rate-limit.send-otp-per-contact:3}") int sendOtpPerContact,
+            @Value("${signup.rate-limit.verify-otp-per-contact:10}") int verifyOtpPerContact,
+            @Value("${signup.rate-limit.per-ip:60}") int perIp,
+            @Value("${signup.rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${signup.rate-limit.max-concurrent:50}") int maxConcurrent) {
+        this.sendOtpContactLimiter = new SlidingWindowRateLimiter(sendOtpPerContact, WINDOW_MILLIS, maxKeys);
+        this.verifyOtpContactLimiter = new SlidingWindowRateLimiter(verifyOtpPerContact, WINDOW_MILLIS, maxKeys);
+        this.ipLimiter = new SlidingWindowRateLimiter(perIp, WINDOW_MILLIS, maxKeys);
+        this.inFlight = new Semaphore(maxConcurrent);
+
+        this.sendAccepted = counter(meterRegistry, SEND_OTP, "accepted", "none");
+        this.verifyAccepted = counter(meterRegistry, VERIFY_OTP, "accepted", "none");
+        this.sendRejectedContact = counter(meterRegistry, SEND_OTP, "rejected", "contact");
+        this.verifyRejectedContact = counter(meterRegistry, VERIFY_OTP, "rejected", "contact");
+        this.sendRejectedIp = counter(meterRegistry, SEND_OTP, "rejected", "ip");
+        this.verifyRejectedIp = counter(meterRegistry, VERIFY_OTP, "rejected", "ip");
+        this.sendRejectedConcurrency = counter(meterRegistry, SEND_OTP, "rejected", "concurrency");
+        this.verifyRejectedConcurrency = counter(meterRegistry, VERIFY_OTP, "rejected", "concurrency");
+
+        Gauge.builder("signup.throttle.in_flight", inFlight, s -> maxConcurrent - s.availablePermits())
+            .description("OTP requests currently being processed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take a concurrency slot and check the client IP limit.
+     * Returns false (and records why) if the request must be rejected with 429;
+     * on true the caller must call {@link #release()} when done.
+     */
+    public boolean tryAdmit(String endpoint, String clientIp) {
+        if (!inFlight.tryAcquire()) {
+            (SEND_OTP.equals(endpoint) ? sendRejectedConcurrency : verifyRejectedConcurrency).increment();
+            return false;
+        }
+        if (clientIp != null && !ipLimiter.tryAcquire(clientIp)) {
+            inFlight.release();
+            (SEND_OTP.equals(endpoint) ? sendRejectedIp : verifyRejectedIp).increment();
+            log.warn("Rate limit exceeded for IP {} on {}", clientIp, endpoint);
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        inFlight.release();
+    }
+
+    /**
+     * Check the per-contact limit for an OTP endpoint
+     */
+    public boolean tryAcquireContact(String endpoint, String contact) {
+        boolean sendOtp = SEND_OTP.equals(endpoint);
+        SlidingWindowRateLimiter limiter = sendOtp ? sendOtpContactLimiter : verifyOtpContactLimiter;
+        if (!limiter.tryAcquire(contact.trim().toLowerCase())) {
+            (sendOtp ? sendRejectedContact : verifyRejectedContact).increment();
+            log.warn("Rate limit exceeded for contact {} on {}", contact, endpoint);
+            return false;
+        }
+        (sendOtp ? sendAccepted : verifyAccepted).increment();
+        return true;
+    }
+
+    private static Counter counter(MeterRegistry registry, String endpoint, String outcome, String reason) {
+        return Counter.builder("signup.throttle")
+            .description("OTP endpoint admission decisions")
+            .tag("endpoint", endpoint)
+            .tag("outcome", outcome)
+            .tag("reason", reason)
+            .register(registry);
+    }
+}
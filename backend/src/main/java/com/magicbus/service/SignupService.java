@@ -4,16 +4,35 @@ import com.magicbus.dto.*;
 import com.magicbus.entity.*;
 import com.magicbus.entity.workflow.CandidateWorkflow;
 import com.magicbus.entity.workflow.WorkflowStatus;
+import com.magicbus.event.CandidateCreatedEvent;
+import com.magicbus.event.CandidateRegionChangedEvent;
+import com.magicbus.event.OnboardingStatusChangedEvent;
+import com.magicbus.event.WorkflowCreatedEvent;
 import com.magicbus.repository.*;
 import com.magicbus.repository.workflow.CandidateWorkflowRepository;
+import com.magicbus.service.audit.AuditLogWriter;
+import com.magicbus.service.audit.AuditSnapshots;
+import com.magicbus.service.otp.OtpStore;
 import com.magicbus.util.ScoreUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
 
@@ -24,14 +43,17 @@ import java.util.UUID;
 public class SignupService {
     
     private final CandidateRepository candidateRepository;
-    private final OtpVerificationRepository otpVerificationRepository;
+    private final OtpStore otpStore;
     private final PersonalDetailsRepository personalDetailsRepository;
     private final EducationDetailsRepository educationDetailsRepository;
     private final CandidateSkillRepository candidateSkillRepository;
     private final CandidateLanguageRepository candidateLanguageRepository;
     private final OnboardingProgressRepository onboardingProgressRepository;
-    private final AuditLogRepository auditLogRepository;
     private final CandidateWorkflowRepository candidateWorkflowRepository;
+    private final CandidateContactFilter candidateContactFilter;
+    private final AuditLogWriter auditLogWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
     
     // Constants
     private static final int OTP_VALIDITY_MINUTES = 10;
@@ -39,7 +61,9 @@ public class SignupService {
     
     /**
      * Step 1: Send OTP to email or phone
+     * Runs outside a transaction - the OTP store does not need a DB connection
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public String sendOtp(SendOtpRequest request) {
         // Normalize contact type - accept both PHONE and MOBILE
         String normalizedContactType = normalizeContactType(request.getContactType());
@@ -50,11 +74,7 @@ public class SignupService {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime expiresAt = now.plusMinutes(OTP_VALIDITY_MINUTES);
         
-        // Check if OTP already exists for this contact
-        otpVerificationRepository.findByContactAndIsVerifiedFalse(request.getContact())
-            .ifPresent(otpVerificationRepository::delete);
-        
-        // Create new OTP record
+        // Create new OTP record (replaces any pending OTP for this contact)
         OtpVerification otp = OtpVerification.builder()
             .contact(request.getContact())
             .contactType(normalizedContactType)
@@ -66,7 +86,7 @@ public class SignupService {
             .expiresAt(expiresAt)
             .build();
         
-        otpVerificationRepository.save(otp);
+        otpStore.save(otp);
         
         log.info("OTP sent successfully. Test Code: 0000 (Testing Mode)");
         
@@ -91,12 +111,14 @@ public class SignupService {
     
     /**
      * Step 2: Verify OTP
+     * Runs outside a transaction - a new candidate is inserted in its own
+     * (see createCandidateFromOtp), so a lost insert race can be recovered
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long verifyOtp(VerifyOtpRequest request) {
         log.info("Verifying OTP for contact: {}", request.getContact());
         
-        OtpVerification otp = otpVerificationRepository.findByContactAndOtpCode(
-                request.getContact(), request.getOtpCode())
+        OtpVerification otp = otpStore.findByContact(request.getContact())
             .orElseThrow(() -> new RuntimeException("Invalid OTP"));
         
         // Check if expired
@@ -104,22 +126,18 @@ public class SignupService {
             throw new RuntimeException("OTP expired");
         }
         
-        // Check attempts
-        if (otp.getAttempts() >= otp.getMaxAttempts()) {
+        // Check and count the attempt in one step, so concurrent calls cannot exceed the limit
+        if (!otpStore.tryConsumeAttempt(otp)) {
             throw new RuntimeException("Maximum OTP attempts exceeded");
         }
         
         // Check if code matches
         if (!otp.getOtpCode().equals(request.getOtpCode())) {
-            otp.setAttempts(otp.getAttempts() + 1);
-            otpVerificationRepository.save(otp);
             throw new RuntimeException("Invalid OTP code");
         }
         
         // Mark as verified
-        otp.setIsVerified(true);
-        otp.setVerifiedAt(LocalDateTime.now());
-        otpVerificationRepository.save(otp);
+        otpStore.markVerified(otp);
         
         log.info("OTP verified successfully for: {}", request.getContact());
         
@@ -130,56 +148,68 @@ public class SignupService {
     }
     
     /**
-     * Create candidate from OTP verification
+     * Create candidate from OTP verification.
+     * The existing-candidate lookup is skipped when the contact filter says the
+     * contact is definitely new; the unique constraints still guard the insert.
+     * The insert runs in a new transaction, so when it hits a constraint (the
+     * contact was registered meanwhile, e.g. on another node) the caller's
+     * transaction is unaffected and the existing candidate is returned.
      */
     private Candidate createCandidateFromOtp(String contact, String contactType) {
         LocalDateTime now = LocalDateTime.now();
+        boolean email = "EMAIL".equals(contactType);
         
-        if ("EMAIL".equals(contactType)) {
-            return candidateRepository.findByEmail(contact)
-                .orElseGet(() -> {
-                    Candidate candidate = Candidate.builder()
-                        .email(contact)
-                        .phoneNumber("PENDING")  // Will be filled in personal details
-                        .firstName("PENDING")
-                        .lastName("PENDING")
-                        .gender("PENDING")
-                        .status("ACTIVE")
-                        .addressLine1("PENDING")
-                        .city("PENDING")
-                        .state("PENDING")
-                        .pincode("PENDING")
-                        .dateOfBirth(LocalDate.now())
-                        .engagementScore(ScoreUtils.getEngagementScore())
-                        .dropoutRiskScore(ScoreUtils.getDropoutRiskScore())
-                        .createdAt(now)
-                        .updatedAt(now)
-                        .build();
-                    return candidateRepository.save(candidate);
-                });
-        } else {
-            return candidateRepository.findByPhoneNumber(contact)
-                .orElseGet(() -> {
-                    Candidate candidate = Candidate.builder()
-                        .phoneNumber(contact)
-                        .email("PENDING")  // Will be filled in personal details
-                        .firstName("PENDING")
-                        .lastName("PENDING")
-                        .gender("PENDING")
-                        .status("ACTIVE")
-                        .addressLine1("PENDING")
-                        .city("PENDING")
-                        .state("PENDING")
-                        .pincode("PENDING")
-                        .dateOfBirth(LocalDate.now())
-                        .engagementScore(ScoreUtils.getEngagementScore())
-                        .dropoutRiskScore(ScoreUtils.getDropoutRiskScore())
-                        .createdAt(now)
-                        .updatedAt(now)
-                        .build();
-                    return candidateRepository.save(candidate);
-                });
-        }
+        if (candidateContactFilter.mightExist(contact)) {
+            Optional<Candidate> existing = findCandidateByContact(contact, email);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            candidateContactFilter.reportFalsePositive();
+        }
+        
+        Candidate pending = Candidate.builder()
+            .email(email ? contact : "PENDING")  // Will be filled in personal details
+            .phoneNumber(email ? "PENDING" : contact)
+            .firstName("PENDING")
+            .lastName("PENDING")
+            .gender("PENDING")
+            .status("ACTIVE")
+            .addressLine1("PENDING")
+            .city("PENDING")
+            .state("PENDING")
+            .pincode("PENDING")
+            .dateOfBirth(LocalDate.now())
+            .engagementScore(ScoreUtils.getEngagementScore())
+            .dropoutRiskScore(ScoreUtils.getDropoutRiskScore())
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+        
+        TransactionTemplate insertTransaction = new TransactionTemplate(transactionManager);
+        insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Candidate candidate;
+        try {
+            candidate = insertTransaction.execute(status -> {
+                Candidate saved = candidateRepository.saveAndFlush(pending);
+                eventPublisher.publishEvent(new CandidateCreatedEvent(saved));
+                auditLogWriter.record("CREATE", "candidate", saved.getId(), saved.getId(),
+                    null, AuditSnapshots.candidate(saved));
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Contact exists but the filter had not seen it yet (added on another
+            // node or by a concurrent request) - remember it and use that candidate
+            candidateContactFilter.record(contact);
+            log.info("Candidate insert for {} hit a unique constraint - using the existing candidate", contact);
+            return findCandidateByContact(contact, email)
+                .orElseThrow(() -> new RuntimeException("Could not register contact - please try again"));
+        }
+        candidateContactFilter.record(candidate);
+        return candidate;
+    }
+    
+    private Optional<Candidate> findCandidateByContact(String contact, boolean email) {
+        return email ? candidateRepository.findByEmail(contact) : candidateRepository.findByPhoneNumber(contact);
     }
     
     /**
@@ -190,6 +220,7 @@ public class SignupService {
         
         Candidate candidate = candidateRepository.findById(dto.getCandidateId())
             .orElseThrow(() -> new RuntimeException("Candidate not found"));
+        Map<String, Object> before = AuditSnapshots.candidate(candidate);
         
         candidate.setFirstName(dto.getFirstName());
         candidate.setLastName(dto.getLastName());
@@ -197,6 +228,7 @@ public class SignupService {
         candidate.setUpdatedAt(LocalDateTime.now());
         
         candidateRepository.save(candidate);
+        auditCandidateUpdate(candidate, before);
         
         log.info("Profile details saved successfully for candidate: {}", dto.getCandidateId());
     }
@@ -213,6 +245,22 @@ public class SignupService {
         Candidate candidate = candidateRepository.findById(dto.getCandidateId())
             .orElseThrow(() -> new RuntimeException("Candidate not found"));
         
+        OnboardingProgress progress = loadOnboardingProgress(candidate);
+        applyPersonalDetails(candidate, dto);
+        markStepCompleted(progress, "personal_details_completed", true);
+        onboardingProgressRepository.save(progress);
+        
+        log.info("Personal details saved successfully");
+    }
+    
+    /**
+     * Copy personal details onto the Candidate and its PersonalDetails
+     */
+    private void applyPersonalDetails(Candidate candidate, PersonalDetailsDto dto) {
+        Map<String, Object> before = AuditSnapshots.candidate(candidate);
+        String previousState = candidate.getState();
+        String previousCity = candidate.getCity();
+        
         // ========== Update Candidate entity with basic information ==========
         if (dto.getFirstName() != null && !dto.getFirstName().isEmpty()) {
             candidate.setFirstName(dto.getFirstName());
@@ -252,11 +300,20 @@ public class SignupService {
         }
         candidate.setUpdatedAt(LocalDateTime.now());
         candidateRepository.save(candidate);
+        candidateContactFilter.record(candidate);
+        auditCandidateUpdate(candidate, before);
+        if (!Objects.equals(previousState, candidate.getState()) || !Objects.equals(previousCity, candidate.getCity())) {
+            eventPublisher.publishEvent(new CandidateRegionChangedEvent(candidate, previousState, previousCity));
+        }
         log.info("Updated Candidate entity with basic info");
         
         // ========== Update PersonalDetails entity with additional info ==========
-        PersonalDetails personalDetails = personalDetailsRepository.findByCandidateId(dto.getCandidateId())
-            .orElseGet(() -> PersonalDetails.builder().candidate(candidate).build());
+        // Loaded together with the candidate (one-to-one), no separate lookup needed
+        PersonalDetails personalDetails = candidate.getPersonalDetails();
+        if (personalDetails == null) {
+            personalDetails = PersonalDetails.builder().candidate(candidate).build();
+            candidate.setPersonalDetails(personalDetails);
+        }
         
         // Bank account info
         if (dto.getBankAccount() != null && !dto.getBankAccount().isEmpty()) {
@@ -301,11 +358,6 @@ public class SignupService {
         personalDetails.setUpdatedAt(LocalDateTime.now());
         
         personalDetailsRepository.save(personalDetails);
-        
-        // Update onboarding progress
-        updateOnboardingProgress(candidate.getId(), "personal_details_completed", true);
-        
-        log.info("Personal details saved successfully");
     }
     
     /**
@@ -318,8 +370,24 @@ public class SignupService {
         Candidate candidate = candidateRepository.findById(dto.getCandidateId())
             .orElseThrow(() -> new RuntimeException("Candidate not found"));
         
-        EducationDetails educationDetails = educationDetailsRepository.findByCandidateId(dto.getCandidateId())
-            .orElseGet(() -> EducationDetails.builder().candidate(candidate).build());
+        OnboardingProgress progress = loadOnboardingProgress(candidate);
+        applyEducationDetails(candidate, dto);
+        markStepCompleted(progress, "education_details_completed", true);
+        onboardingProgressRepository.save(progress);
+        
+        log.info("Education details saved successfully");
+    }
+    
+    /**
+     * Copy education details onto the candidate's EducationDetails
+     */
+    private void applyEducationDetails(Candidate candidate, EducationDetailsDto dto) {
+        // Loaded together with the candidate (one-to-one), no separate lookup needed
+        EducationDetails educationDetails = candidate.getEducationDetails();
+        if (educationDetails == null) {
+            educationDetails = EducationDetails.builder().candidate(candidate).build();
+            candidate.setEducationDetails(educationDetails);
+        }
         
         // ========== 10th Standard ==========
         // Accept either frontend simplified names OR detailed field names
@@ -413,11 +481,6 @@ public class SignupService {
         educationDetails.setUpdatedAt(LocalDateTime.now());
         
         educationDetailsRepository.save(educationDetails);
-        
-        // Update onboarding progress
-        updateOnboardingProgress(candidate.getId(), "education_details_completed", true);
-        
-        log.info("Education details saved successfully");
     }
     
     /**
@@ -429,40 +492,119 @@ public class SignupService {
         Candidate candidate = candidateRepository.findById(dto.getCandidateId())
             .orElseThrow(() -> new RuntimeException("Candidate not found"));
         
-        // Clear existing skills
-        candidateSkillRepository.deleteByCandidateId(candidate.getId());
+        OnboardingProgress progress = loadOnboardingProgress(candidate);
+        applySkillsAndLanguages(candidate, dto);
+        markStepCompleted(progress, "skills_completed", true);
+        onboardingProgressRepository.save(progress);
         
-        // Save new skills
+        log.info("Skills and languages saved successfully");
+    }
+    
+    /**
+     * Replace the candidate's skills and languages.
+     * Only changed rows are touched: removed entries go in one bulk delete,
+     * new entries in one saveAll, and changed proficiency levels are updated
+     * in place.
+     */
+    private void applySkillsAndLanguages(Candidate candidate, SkillsAndLanguagesDto dto) {
+        // ========== Skills ==========
+        Map<String, SkillDto> requestedSkills = new LinkedHashMap<>();
         if (dto.getSkills() != null) {
-            dto.getSkills().forEach(skillDto -> {
-                CandidateSkill skill = CandidateSkill.builder()
+            dto.getSkills().stream()
+                .filter(skillDto -> skillDto.getSkillName() != null && !skillDto.getSkillName().isBlank())
+                .forEach(skillDto -> requestedSkills.put(skillDto.getSkillName().trim(), skillDto));
+        }
+        
+        List<Long> removedSkillIds = new ArrayList<>();
+        for (CandidateSkill existing : candidateSkillRepository.findByCandidateId(candidate.getId())) {
+            SkillDto requested = requestedSkills.remove(existing.getSkillName());
+            if (requested == null) {
+                removedSkillIds.add(existing.getId());
+            } else if (!Objects.equals(existing.getProficiencyLevel(), requested.getProficiencyLevel())) {
+                existing.setProficiencyLevel(requested.getProficiencyLevel());
+            }
+        }
+        if (!removedSkillIds.isEmpty()) {
+            candidateSkillRepository.deleteAllByIdInBatch(removedSkillIds);
+        }
+        if (!requestedSkills.isEmpty()) {
+            candidateSkillRepository.saveAll(requestedSkills.entrySet().stream()
+                .map(entry -> CandidateSkill.builder()
                     .candidate(candidate)
-                    .skillName(skillDto.getSkillName())
-                    .proficiencyLevel(skillDto.getProficiencyLevel())
-                    .build();
-                candidateSkillRepository.save(skill);
-            });
+                    .skillName(entry.getKey())
+                    .proficiencyLevel(entry.getValue().getProficiencyLevel())
+                    .build())
+                .toList());
         }
         
-        // Clear existing languages
-        candidateLanguageRepository.deleteByCandidateId(candidate.getId());
-        
-        // Save new languages
+        // ========== Languages ==========
+        Map<String, LanguageDto> requestedLanguages = new LinkedHashMap<>();
         if (dto.getLanguages() != null) {
-            dto.getLanguages().forEach(langDto -> {
-                CandidateLanguage language = CandidateLanguage.builder()
+            dto.getLanguages().stream()
+                .filter(langDto -> langDto.getLanguageName() != null && !langDto.getLanguageName().isBlank())
+                .forEach(langDto -> requestedLanguages.put(langDto.getLanguageName().trim(), langDto));
+        }
+        
+        List<Long> removedLanguageIds = new ArrayList<>();
+        for (CandidateLanguage existing : candidateLanguageRepository.findByCandidateId(candidate.getId())) {
+            LanguageDto requested = requestedLanguages.remove(existing.getLanguageName());
+            if (requested == null) {
+                removedLanguageIds.add(existing.getId());
+            } else if (!Objects.equals(existing.getProficiencyLevel(), requested.getProficiencyLevel())) {
+                existing.setProficiencyLevel(requested.getProficiencyLevel());
+            }
+        }
+        if (!removedLanguageIds.isEmpty()) {
+            candidateLanguageRepository.deleteAllByIdInBatch(removedLanguageIds);
+        }
+        if (!requestedLanguages.isEmpty()) {
+            candidateLanguageRepository.saveAll(requestedLanguages.entrySet().stream()
+                .map(entry -> CandidateLanguage.builder()
                     .candidate(candidate)
-                    .languageName(langDto.getLanguageName())
-                    .proficiencyLevel(langDto.getProficiencyLevel())
-                    .build();
-                candidateLanguageRepository.save(language);
-            });
+                    .languageName(entry.getKey())
+                    .proficiencyLevel(entry.getValue().getProficiencyLevel())
+                    .build())
+                .toList());
         }
         
-        // Update onboarding progress
-        updateOnboardingProgress(candidate.getId(), "skills_completed", true);
+        log.info("Skills diff for candidate {}: {} removed, {} added; languages: {} removed, {} added",
+            candidate.getId(), removedSkillIds.size(), requestedSkills.size(),
+            removedLanguageIds.size(), requestedLanguages.size());
+    }
+    
+    /**
+     * Submit the whole signup wizard in one transaction.
+     * Applies every step present in the request against a single candidate load
+     * and writes the onboarding progress once. The per-step methods remain for
+     * partial saves.
+     */
+    public void submitSignup(SignupSubmissionDto dto) {
+        log.info("Submitting full signup for candidate: {}", dto.getCandidateId());
+        
+        Candidate candidate = candidateRepository.findById(dto.getCandidateId())
+            .orElseThrow(() -> new RuntimeException("Candidate not found"));
+        
+        OnboardingProgress progress = loadOnboardingProgress(candidate);
         
-        log.info("Skills and languages saved successfully");
+        if (dto.getPersonalDetails() != null) {
+            applyPersonalDetails(candidate, dto.getPersonalDetails());
+            markStepCompleted(progress, "personal_details_completed", true);
+        }
+        if (dto.getEducationDetails() != null) {
+            applyEducationDetails(candidate, dto.getEducationDetails());
+            markStepCompleted(progress, "education_details_completed", true);
+        }
+        if (dto.getSkillsAndLanguages() != null) {
+            applySkillsAndLanguages(candidate, dto.getSkillsAndLanguages());
+            markStepCompleted(progress, "skills_completed", true);
+        }
+        if (dto.isComplete()) {
+            applyCompletion(candidate, progress);
+        }
+        
+        onboardingProgressRepository.save(progress);
+        
+        log.info("Full signup submitted successfully for candidate: {}", dto.getCandidateId());
     }
     
     /**
@@ -475,6 +617,21 @@ public class SignupService {
         Candidate candidate = candidateRepository.findById(candidateId)
             .orElseThrow(() -> new RuntimeException("Candidate not found"));
         
+        OnboardingProgress progress = loadOnboardingProgress(candidate);
+        applyCompletion(candidate, progress);
+        onboardingProgressRepository.save(progress);
+        
+        log.info("Signup completed successfully for candidate: {}", candidateId);
+    }
+    
+    /**
+     * Mark the candidate's onboarding as completed and queue them for screening
+     */
+    private void applyCompletion(Candidate candidate, OnboardingProgress progress) {
+        Long candidateId = candidate.getId();
+        Map<String, Object> before = AuditSnapshots.candidate(candidate);
+        String previousOnboardingStatus = candidate.getOnboardingStatus();
+        
         // Update candidate status to ACTIVE and onboarding status to COMPLETED
         candidate.setStatus("ACTIVE");
         candidate.setOnboardingStatus("COMPLETED");
@@ -491,6 +648,8 @@ public class SignupService {
         
         candidate.setUpdatedAt(LocalDateTime.now());
         candidateRepository.save(candidate);
+        eventPublisher.publishEvent(new OnboardingStatusChangedEvent(candidate, previousOnboardingStatus));
+        auditCandidateUpdate(candidate, before);
         
         // Create workflow entry for screening (if not already exists)
         if (!candidateWorkflowRepository.existsByCandidateId(candidateId)) {
@@ -501,40 +660,43 @@ public class SignupService {
                 .updatedAt(LocalDateTime.now())
                 .build();
             candidateWorkflowRepository.save(workflow);
+            eventPublisher.publishEvent(new WorkflowCreatedEvent(workflow));
+            auditLogWriter.record("CREATE", "candidate_workflow", workflow.getId(), candidateId,
+                null, AuditSnapshots.workflow(workflow));
             log.info("Created workflow entry for candidate {} with status PENDING_SCREENING", candidateId);
         } else {
             log.info("Workflow entry already exists for candidate {}", candidateId);
         }
         
-        // Update onboarding progress
-        OnboardingProgress progress = onboardingProgressRepository.findByCandidateId(candidateId)
-            .orElseGet(() -> OnboardingProgress.builder().candidate(candidate).build());
-        
+        // Update onboarding progress (saved by the caller)
         progress.setSignupCompleted(true);
         progress.setSignupCompletedAt(LocalDateTime.now());
         progress.setOverallCompleted(true);
         progress.setOverallCompletedAt(LocalDateTime.now());
         progress.setProgressPercentage(new java.math.BigDecimal(100));
         progress.setUpdatedAt(LocalDateTime.now());
-        
-        onboardingProgressRepository.save(progress);
-        
-        log.info("Signup completed successfully for candidate: {}", candidateId);
     }
     
     /**
-     * Helper method to update onboarding progress
+     * Audit a candidate update against the snapshot taken before it
      */
-    private void updateOnboardingProgress(Long candidateId, String stepKey, boolean completed) {
-        OnboardingProgress progress = onboardingProgressRepository.findByCandidateId(candidateId)
-            .orElseGet(() -> OnboardingProgress.builder()
-                .candidate(candidateRepository.findById(candidateId).orElse(null))
-                .build());
-        
-        if (progress.getCandidate() == null) {
-            progress.setCandidate(candidateRepository.findById(candidateId).orElse(null));
-        }
-        
+    private void auditCandidateUpdate(Candidate candidate, Map<String, Object> before) {
+        auditLogWriter.record("UPDATE", "candidate", candidate.getId(), candidate.getId(),
+            before, AuditSnapshots.candidate(candidate));
+    }
+    
+    /**
+     * Load (or start) the onboarding progress row for an already loaded candidate
+     */
+    private OnboardingProgress loadOnboardingProgress(Candidate candidate) {
+        return onboardingProgressRepository.findByCandidateId(candidate.getId())
+            .orElseGet(() -> OnboardingProgress.builder().candidate(candidate).build());
+    }
+    
+    /**
+     * Helper method to update onboarding progress in memory; callers save it once
+     */
+    private void markStepCompleted(OnboardingProgress progress, String stepKey, boolean completed) {
         switch (stepKey) {
             case "personal_details_completed":
                 progress.setPersonalDetailsCompleted(completed);
@@ -561,7 +723,6 @@ public class SignupService {
         progress.setProgressPercentage(new java.math.BigDecimal(completedSteps * 33));
         
         progress.setUpdatedAt(LocalDateTime.now());
-        onboardingProgressRepository.save(progress);
     }
     
     /**
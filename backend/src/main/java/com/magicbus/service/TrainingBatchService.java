@@ -4,10 +4,12 @@ import com.magicbus.dto.training.CreateBatchRequest;
 import com.magicbus.dto.training.TrainingBatchDTO;
 import com.magicbus.entity.training.TrainingBatch;
 import com.magicbus.entity.training.TrainingMaster;
+import com.magicbus.event.TrainingBatchChangedEvent;
 import com.magicbus.repository.training.TrainingBatchRepository;
 import com.magicbus.repository.training.TrainingMasterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,7 @@ public class TrainingBatchService {
 
     private final TrainingBatchRepository batchRepository;
     private final TrainingMasterRepository trainingRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all batches
@@ -105,6 +108,7 @@ public class TrainingBatchService {
                 .build();
 
         batch = batchRepository.save(batch);
+        eventPublisher.publishEvent(new TrainingBatchChangedEvent(batch.getId()));
         log.info("Created batch: {} for training: {}", batch.getBatchCode(), training.getName());
         return toDTO(batch);
     }
@@ -149,6 +153,7 @@ public class TrainingBatchService {
         batch.setTrainerName(request.getTrainerName());
 
         batch = batchRepository.save(batch);
+        eventPublisher.publishEvent(new TrainingBatchChangedEvent(batch.getId()));
         log.info("Updated batch: {}", batch.getBatchCode());
         return toDTO(batch);
     }
@@ -163,6 +168,7 @@ public class TrainingBatchService {
 
         batch.setIsActive(!batch.getIsActive());
         batch = batchRepository.save(batch);
+        eventPublisher.publishEvent(new TrainingBatchChangedEvent(batch.getId()));
         log.info("Batch {} is now {}", batch.getBatchCode(), batch.getIsActive() ? "active" : "inactive");
         return toDTO(batch);
     }
@@ -180,6 +186,7 @@ public class TrainingBatchService {
         }
 
         batchRepository.delete(batch);
+        eventPublisher.publishEvent(new TrainingBatchChangedEvent(id));
         log.info("Deleted batch: {}", batch.getBatchCode());
     }
 
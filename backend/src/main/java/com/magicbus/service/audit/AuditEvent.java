@@ -0,0 +1,20 @@
+package com.magicbus.service.audit;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A candidate or workflow mutation waiting to be written to audit_log.
+ * Old/new values are field snapshots; only fields that differ are persisted.
+ */
+public record AuditEvent(
+        Long candidateId,
+        String actionType,
+        String entityType,
+        Long entityId,
+        Map<String, Object> oldValues,
+        Map<String, Object> newValues,
+        String ipAddress,
+        String userAgent,
+        LocalDateTime createdAt) {
+}
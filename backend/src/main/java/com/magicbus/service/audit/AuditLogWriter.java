@@ -0,0 +1,275 @@
+package com.magicbus.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.entity.AuditLog;
+import com.magicbus.entity.Candidate;
+import com.magicbus.repository.AuditLogRepository;
+import com.magicbus.util.ClientAddress;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous audit_log writer.
+ *
+ * {@link #record} only snapshots the request's IP/user agent and puts the
+ * event on a bounded queue - once the surrounding transaction commits, so
+ * rolled-back changes are never audited. A dedicated writer thread drains
+ * the queue and inserts events in batches of audit.batch-size (one
+ * transaction and one JDBC batch per chunk).
+ *
+ * When the queue is full the caller waits at most audit.enqueue-timeout-millis
+ * and the event is then dropped and counted, so a slow database can never
+ * stall requests for long. Remaining events are flushed on shutdown.
+ *
+ * Metrics: audit.events{outcome=written|dropped|failed}, audit.queue.size.
+ */
+@Service
+@Slf4j
+public class AuditLogWriter {
+
+    private static final int MAX_IP_LENGTH = 45;
+    private static final int MAX_USER_AGENT_LENGTH = 500;
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushMillis;
+    private final long enqueueTimeoutMillis;
+    private final BlockingQueue<AuditEvent> queue;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(
+            AuditLogRepository auditLogRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${audit.enabled:true}") boolean enabled,
+            @Value("${audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${audit.batch-size:50}") int batchSize,
+            @Value("${audit.flush-millis:500}") long flushMillis,
+            @Value("${audit.enqueue-timeout-millis:20}") long enqueueTimeoutMillis) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.written = counter(meterRegistry, "written");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.failed = counter(meterRegistry, "failed");
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue an audit event for a candidate/workflow mutation.
+     * oldValues/newValues are field snapshots taken before and after the change;
+     * nothing is recorded if no field changed.
+     */
+    public void record(String actionType, String entityType, Long entityId, Long candidateId,
+                       Map<String, Object> oldValues, Map<String, Object> newValues) {
+        if (!enabled) {
+            return;
+        }
+        String ipAddress = null;
+        String userAgent = null;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            ipAddress = ClientAddress.of(request);
+            userAgent = request.getHeader("User-Agent");
+        }
+        AuditEvent event = new AuditEvent(candidateId, actionType, entityType, entityId,
+            oldValues, newValues, ipAddress, userAgent, LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        try {
+            if (!queue.offer(event, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                dropped.increment();
+                log.warn("Audit queue full - dropped {} {} for candidate {}",
+                    event.actionType(), event.entityType(), event.candidateId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // shutdown() drains whatever is left
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> events) {
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                List<AuditLog> auditLogs = new ArrayList<>(events.size());
+                for (AuditEvent event : events) {
+                    AuditLog auditLog = toAuditLog(event);
+                    if (auditLog != null) {
+                        auditLogs.add(auditLog);
+                    }
+                }
+                auditLogRepository.saveAll(auditLogs);
+                return auditLogs.size();
+            });
+            written.increment(rows != null ? rows : 0);
+        } catch (Exception e) {
+            failed.increment(events.size());
+            log.error("Failed to write {} audit events", events.size(), e);
+        }
+    }
+
+    /**
+     * Keep only the fields that changed; null if nothing did
+     */
+    private AuditLog toAuditLog(AuditEvent event) {
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        Map<String, Object> before = event.oldValues() != null ? event.oldValues() : Map.of();
+        Map<String, Object> after = event.newValues() != null ? event.newValues() : Map.of();
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            Object old = before.get(entry.getKey());
+            if (!Objects.equals(old, entry.getValue())) {
+                if (old != null) {
+                    oldValues.put(entry.getKey(), old);
+                }
+                newValues.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (newValues.isEmpty() && !before.isEmpty()) {
+            return null;
+        }
+        String ipAddress = truncate(event.ipAddress(), MAX_IP_LENGTH);
+        String userAgent = truncate(event.userAgent(), MAX_USER_AGENT_LENGTH);
+        return AuditLog.builder()
+            .candidate(event.candidateId() != null ? entityManager.getReference(Candidate.class, event.candidateId()) : null)
+            .actionType(event.actionType())
+            .entityType(event.entityType())
+            .entityId(event.entityId())
+            .oldValues(oldValues.isEmpty() ? null : toJson(oldValues))
+            .newValues(newValues.isEmpty() ? null : toJson(newValues))
+            .ipAddress(ipAddress)
+            .userAgent(userAgent)
+            .createdAt(event.createdAt())
+            .build();
+    }
+
+    private String toJson(Map<String, Object> values) {
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            return values.toString();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditEvent> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            write(remaining);
+            remaining.clear();
+        }
+        log.info("Audit log writer stopped");
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("audit.events")
+            .description("Audit events by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.magicbus.service.audit;
+
+import com.magicbus.entity.Candidate;
+import com.magicbus.entity.workflow.CandidateWorkflow;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Field snapshots of audited entities, taken before and after a change.
+ * ID document numbers are deliberately left out of the audit trail.
+ */
+public final class AuditSnapshots {
+
+    private AuditSnapshots() {
+    }
+
+    public static Map<String, Object> candidate(Candidate candidate) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("firstName", candidate.getFirstName());
+        values.put("lastName", candidate.getLastName());
+        values.put("email", candidate.getEmail());
+        values.put("phoneNumber", candidate.getPhoneNumber());
+        values.put("dateOfBirth", candidate.getDateOfBirth());
+        values.put("gender", candidate.getGender());
+        values.put("addressLine1", candidate.getAddressLine1());
+        values.put("city", candidate.getCity());
+        values.put("state", candidate.getState());
+        values.put("pincode", candidate.getPincode());
+        values.put("status", candidate.getStatus());
+        values.put("onboardingStatus", candidate.getOnboardingStatus());
+        return values;
+    }
+
+    public static Map<String, Object> workflow(CandidateWorkflow workflow) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("status", workflow.getStatus() != null ? workflow.getStatus().name() : null);
+        values.put("screeningCompletedBy", workflow.getScreeningCompletedBy() != null ? workflow.getScreeningCompletedBy().getId() : null);
+        values.put("screeningNotes", workflow.getScreeningNotes());
+        values.put("orientationCompletedBy", workflow.getOrientationCompletedBy() != null ? workflow.getOrientationCompletedBy().getId() : null);
+        values.put("orientationNotes", workflow.getOrientationNotes());
+        values.put("enrolledBy", workflow.getEnrolledBy() != null ? workflow.getEnrolledBy().getId() : null);
+        values.put("trainingBatchId", workflow.getTrainingBatch() != null ? workflow.getTrainingBatch().getId() : null);
+        values.put("enrollmentNotes", workflow.getEnrollmentNotes());
+        return values;
+    }
+}
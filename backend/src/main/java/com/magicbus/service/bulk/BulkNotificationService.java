@@ -0,0 +1,112 @@
+package com.magicbus.service.bulk;
+
+import com.magicbus.dto.BulkNotificationRequest;
+import com.magicbus.repository.OnboardingAgingNotificationRepository;
+import com.magicbus.service.NotificationCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+/**
+ * Bulk dismiss / mark-read of aging notifications.
+ *
+ * Notifications are selected by id list, or by candidate / color / status /
+ * age range. Each chunk of notifications.bulk.chunk-size ids is changed with
+ * one UPDATE ... WHERE id IN (...) in its own short transaction, so a large
+ * backlog never holds locks for long. Filter selections walk the matching
+ * ids in id order. The live counters are reloaded once at the end.
+ */
+@Service
+@Slf4j
+public class BulkNotificationService {
+
+    private final OnboardingAgingNotificationRepository notificationRepository;
+    private final NotificationCounterService counterService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkNotificationService(
+            OnboardingAgingNotificationRepository notificationRepository,
+            NotificationCounterService counterService,
+            PlatformTransactionManager transactionManager,
+            @Value("${notifications.bulk.chunk-size:1000}") int chunkSize) {
+        this.notificationRepository = notificationRepository;
+        this.counterService = counterService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Dismiss the selected notifications; returns how many were dismissed
+     */
+    public int dismiss(BulkNotificationRequest request) {
+        int updated = apply(request, notificationRepository::dismissByIds);
+        log.info("Bulk dismissed {} notifications", updated);
+        return updated;
+    }
+
+    /**
+     * Mark the selected notifications as read; returns how many changed
+     */
+    public int markRead(BulkNotificationRequest request) {
+        int updated = apply(request, notificationRepository::markReadByIds);
+        log.info("Bulk marked {} notifications as read", updated);
+        return updated;
+    }
+
+    private int apply(BulkNotificationRequest request, BiFunction<List<Long>, LocalDateTime, Integer> update) {
+        int updated = 0;
+        try {
+            if (request.getIds() != null && !request.getIds().isEmpty()) {
+                List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+                for (int from = 0; from < ids.size(); from += chunkSize) {
+                    updated += updateChunk(ids.subList(from, Math.min(from + chunkSize, ids.size())), update);
+                }
+                return updated;
+            }
+
+            String color = upper(request.getColor());
+            String status = upper(request.getStatus());
+            if (request.getCandidateId() == null && color == null && status == null
+                    && request.getMinDays() == null && request.getMaxDays() == null) {
+                throw new RuntimeException("Select notifications by ids, candidateId or a filter (color, status, minDays, maxDays)");
+            }
+
+            long afterId = 0;
+            List<Long> chunk;
+            do {
+                chunk = notificationRepository.findActiveIdsMatching(afterId, request.getCandidateId(), color, status,
+                    request.getMinDays(), request.getMaxDays(), PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                updated += updateChunk(chunk, update);
+                afterId = chunk.get(chunk.size() - 1);
+            } while (chunk.size() == chunkSize);
+            return updated;
+        } finally {
+            if (updated > 0) {
+                counterService.reload();
+            }
+        }
+    }
+
+    private int updateChunk(List<Long> ids, BiFunction<List<Long>, LocalDateTime, Integer> update) {
+        Integer changed = transactionTemplate.execute(status -> update.apply(ids, LocalDateTime.now()));
+        return changed == null ? 0 : changed;
+    }
+
+    private static String upper(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+}
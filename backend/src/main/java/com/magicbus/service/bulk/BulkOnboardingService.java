@@ -0,0 +1,290 @@
+package com.magicbus.service.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.dto.BulkOnboardingResultDTO;
+import com.magicbus.dto.BulkOnboardingResultDTO.RecordError;
+import com.magicbus.dto.OnboardingRequestDTO;
+import com.magicbus.repository.CandidateRepository;
+import com.magicbus.service.OnboardingService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk candidate onboarding for field drives.
+ *
+ * The upload is read as a stream (see BulkRecordReader) and handled in chunks
+ * of bulk-onboarding.chunk-size records, so only one chunk is in memory at a
+ * time. For each chunk:
+ * - records are validated in parallel on a small fixed pool
+ * - duplicates are caught within the chunk and against the database with one
+ *   IN query per contact type
+ * - valid records are inserted in a single transaction (JDBC batched); if that
+ *   transaction fails, the chunk is retried record by record so one bad row
+ *   only fails itself
+ *
+ * Every failed record is reported with its 1-based position in the upload.
+ */
+@Service
+@Slf4j
+public class BulkOnboardingService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9]{10,15}$");
+
+    private final OnboardingService onboardingService;
+    private final CandidateRepository candidateRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService validationPool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BulkOnboardingService(
+            OnboardingService onboardingService,
+            CandidateRepository candidateRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${bulk-onboarding.chunk-size:200}") int chunkSize,
+            @Value("${bulk-onboarding.validation-threads:4}") int validationThreads,
+            @Value("${bulk-onboarding.max-reported-errors:1000}") int maxReportedErrors) {
+        this.onboardingService = onboardingService;
+        this.candidateRepository = candidateRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.validationPool = Executors.newFixedThreadPool(validationThreads, r -> {
+            Thread thread = new Thread(r, "bulk-onboarding-validate-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Import the upload. If it cannot be read to the end (connection dropped,
+     * malformed data), the records read so far are still imported - earlier
+     * chunks are already committed - and the result says where reading stopped.
+     * Only an upload that cannot be opened at all fails with an exception.
+     */
+    public BulkOnboardingResultDTO importCandidates(InputStream in, BulkRecordReader.Format format) throws IOException {
+        Result result = new Result();
+        List<BulkRecord> chunk = new ArrayList<>(chunkSize);
+        String streamError = null;
+        BulkRecordReader reader = BulkRecordReader.open(in, format, objectMapper);
+        try {
+            BulkRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            streamError = "Upload could not be read past record " + (result.total + chunk.size())
+                + ": " + e.getMessage();
+            log.warn("Bulk onboarding upload truncated: {}", streamError);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.debug("Could not close bulk upload stream: {}", e.getMessage());
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, result);
+        }
+        log.info("Bulk onboarding finished: {} records, {} onboarded, {} failed",
+            result.total, result.succeeded, result.failed);
+        return BulkOnboardingResultDTO.builder()
+            .success(result.failed == 0 && streamError == null)
+            .total(result.total)
+            .succeeded(result.succeeded)
+            .failed(result.failed)
+            .errors(result.errors)
+            .errorsTruncated(result.failed > result.errors.size())
+            .streamError(streamError)
+            .build();
+    }
+
+    private void processChunk(List<BulkRecord> chunk, Result result) {
+        result.total += chunk.size();
+
+        // Parallel field validation
+        List<CompletableFuture<String>> checks = new ArrayList<>(chunk.size());
+        for (BulkRecord record : chunk) {
+            checks.add(record.error() != null
+                ? CompletableFuture.completedFuture(record.error())
+                : CompletableFuture.supplyAsync(() -> validate(record.request()), validationPool));
+        }
+
+        List<BulkRecord> valid = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            BulkRecord record = chunk.get(i);
+            String error = checks.get(i).join();
+            if (error == null) {
+                OnboardingRequestDTO request = record.request();
+                if (!phones.add(request.getPhone())) {
+                    error = "Duplicate phone number in upload";
+                } else if (request.getEmail() != null && !emails.add(request.getEmail())) {
+                    error = "Duplicate email in upload";
+                }
+            }
+            if (error != null) {
+                result.fail(record, error);
+            } else {
+                valid.add(record);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Contacts already registered - one query per contact type for the whole chunk
+        Set<String> existingPhones = new HashSet<>(candidateRepository.findExistingPhoneNumbers(phones));
+        Set<String> existingEmails = emails.isEmpty() ? Set.of() : new HashSet<>(candidateRepository.findExistingEmails(emails));
+        List<BulkRecord> toInsert = new ArrayList<>(valid.size());
+        for (BulkRecord record : valid) {
+            if (existingPhones.contains(record.request().getPhone())) {
+                result.fail(record, "Phone number already registered");
+            } else if (record.request().getEmail() != null && existingEmails.contains(record.request().getEmail())) {
+                result.fail(record, "Email already registered");
+            } else {
+                toInsert.add(record);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                toInsert.forEach(record -> onboardingService.persistCandidate(record.request()));
+                entityManager.flush();
+            });
+            result.succeeded += toInsert.size();
+        } catch (Exception e) {
+            log.warn("Bulk chunk of {} failed ({}), retrying record by record", toInsert.size(), e.getMessage());
+            entityManager.clear();
+            for (BulkRecord record : toInsert) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        onboardingService.persistCandidate(record.request());
+                        entityManager.flush();
+                    });
+                    result.succeeded++;
+                } catch (Exception recordError) {
+                    result.fail(record, "Could not save candidate: " + rootMessage(recordError));
+                } finally {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            // Under open-in-view the request's persistence context would otherwise keep every chunk
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Field checks for one record; returns the error or null if valid.
+     * Normalizes email/phone in place.
+     */
+    private static String validate(OnboardingRequestDTO request) {
+        if (isBlank(request.getFirstName()) || isBlank(request.getLastName())) {
+            return "First and last name are required";
+        }
+        if (isBlank(request.getPhone())) {
+            return "Phone number is required";
+        }
+        request.setPhone(request.getPhone().replaceAll("[\\s-]", ""));
+        if (!PHONE.matcher(request.getPhone()).matches()) {
+            return "Invalid phone number";
+        }
+        if (isBlank(request.getEmail())) {
+            request.setEmail(null);
+        } else {
+            request.setEmail(request.getEmail().trim().toLowerCase());
+            if (!EMAIL.matcher(request.getEmail()).matches()) {
+                return "Invalid email";
+            }
+        }
+        if (isBlank(request.getDateOfBirth())) {
+            return "Date of birth is required";
+        }
+        try {
+            LocalDate dob = LocalDate.parse(request.getDateOfBirth().trim());
+            if (dob.isAfter(LocalDate.now())) {
+                return "Date of birth is in the future";
+            }
+            request.setDateOfBirth(dob.toString());
+        } catch (DateTimeParseException e) {
+            return "Date of birth must be YYYY-MM-DD";
+        }
+        if (isBlank(request.getGender()) || isBlank(request.getAddress()) || isBlank(request.getCity())
+                || isBlank(request.getState()) || isBlank(request.getPincode())) {
+            return "Gender, address, city, state and pincode are required";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdown();
+    }
+
+    private class Result {
+        int total;
+        int succeeded;
+        int failed;
+        final List<RecordError> errors = new ArrayList<>();
+
+        void fail(BulkRecord record, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(RecordError.builder()
+                    .record(record.index())
+                    .phone(record.request() != null ? record.request().getPhone() : null)
+                    .message(message)
+                    .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.magicbus.service.bulk;
+
+import com.magicbus.dto.OnboardingRequestDTO;
+
+/**
+ * One record of a bulk upload: either a parsed request or the reason it could not be parsed
+ */
+public record BulkRecord(int index, OnboardingRequestDTO request, String error) {
+
+    public static BulkRecord parsed(int index, OnboardingRequestDTO request) {
+        return new BulkRecord(index, request, null);
+    }
+
+    public static BulkRecord failed(int index, String error) {
+        return new BulkRecord(index, null, error);
+    }
+}
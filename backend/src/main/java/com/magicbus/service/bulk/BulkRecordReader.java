@@ -0,0 +1,221 @@
+package com.magicbus.service.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.dto.OnboardingRequestDTO;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming reader for bulk onboarding uploads - one record at a time, so the
+ * upload is never held in memory.
+ *
+ * Supported formats:
+ * - json: an array of OnboardingRequestDTO objects
+ * - ndjson: one OnboardingRequestDTO object per line
+ * - csv: a header row of OnboardingRequestDTO field names, then one candidate
+ *   per line; list fields (skills, languagesKnown, certifications) are
+ *   separated with ';'. Quoted fields may contain commas but not line breaks.
+ *
+ * A record that cannot be parsed is returned as a failed BulkRecord and
+ * reading continues with the next one.
+ */
+public abstract class BulkRecordReader implements Closeable {
+
+    public enum Format { JSON, NDJSON, CSV }
+
+    private static final Set<String> LIST_FIELDS = Set.of("skills", "languagesKnown", "certifications");
+
+    protected final ObjectMapper objectMapper;
+    protected int index;
+
+    protected BulkRecordReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public static BulkRecordReader open(InputStream in, Format format, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case JSON -> new JsonArrayReader(in, objectMapper);
+            case NDJSON -> new NdjsonReader(in, objectMapper);
+            case CSV -> new CsvReader(in, objectMapper);
+        };
+    }
+
+    /**
+     * Next record, or null at the end of the upload
+     */
+    public abstract BulkRecord next() throws IOException;
+
+    protected BulkRecord convert(JsonNode node) {
+        index++;
+        try {
+            return BulkRecord.parsed(index, objectMapper.treeToValue(node, OnboardingRequestDTO.class));
+        } catch (JsonProcessingException e) {
+            return BulkRecord.failed(index, "Invalid record: " + e.getOriginalMessage());
+        }
+    }
+
+    private static final class JsonArrayReader extends BulkRecordReader {
+
+        private final JsonParser parser;
+
+        JsonArrayReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+            super(objectMapper);
+            this.parser = objectMapper.getFactory().createParser(in);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of candidates");
+            }
+        }
+
+        @Override
+        public BulkRecord next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            JsonNode node = objectMapper.readTree(parser);
+            if (!node.isObject()) {
+                index++;
+                return BulkRecord.failed(index, "Expected a JSON object");
+            }
+            return convert(node);
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    private static final class NdjsonReader extends BulkRecordReader {
+
+        private final BufferedReader reader;
+
+        NdjsonReader(InputStream in, ObjectMapper objectMapper) {
+            super(objectMapper);
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public BulkRecord next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                index++;
+                return BulkRecord.failed(index, "Invalid JSON line");
+            }
+            if (!node.isObject()) {
+                index++;
+                return BulkRecord.failed(index, "Expected a JSON object");
+            }
+            return convert(node);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class CsvReader extends BulkRecordReader {
+
+        private final BufferedReader reader;
+        private final List<String> header;
+
+        CsvReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+            super(objectMapper);
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IOException("CSV upload is empty");
+            }
+            if (headerLine.startsWith("\uFEFF")) {
+                headerLine = headerLine.substring(1);
+            }
+            this.header = parseLine(headerLine);
+        }
+
+        @Override
+        public BulkRecord next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            List<String> values = parseLine(line);
+            if (values.size() > header.size()) {
+                index++;
+                return BulkRecord.failed(index, "Expected " + header.size() + " columns but found " + values.size());
+            }
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                String name = header.get(i).trim();
+                String value = values.get(i).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                fields.put(name, LIST_FIELDS.contains(name)
+                    ? Arrays.stream(value.split(";")).map(String::trim).filter(s -> !s.isEmpty()).toList()
+                    : value);
+            }
+            return convert(objectMapper.valueToTree(fields));
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        private static List<String> parseLine(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+}
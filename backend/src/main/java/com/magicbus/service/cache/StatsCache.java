@@ -0,0 +1,219 @@
+package com.magicbus.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Small in-process cache for the admin stats endpoints (dashboard, screening
+ * stats, training calendar summary).
+ *
+ * - entries live for stats.cache.ttl-seconds after they were computed, and at
+ *   most stats.cache.max-entries are kept (expired, then oldest, go first)
+ * - concurrent requests for the same missing entry share one computation
+ * - StatsCacheInvalidator drops exactly the affected entries once a change
+ *   commits; the TTL bounds staleness for changes made on other nodes
+ *
+ * Metrics: stats.cache.requests{region,result=hit|miss|coalesced},
+ * stats.cache.hit_ratio{region}, stats.cache.load{region} (recompute time),
+ * stats.cache.size.
+ */
+@Service
+public class StatsCache {
+
+    public static final String DASHBOARD = "dashboard";
+    public static final String SCREENING = "screening";
+    public static final String CALENDAR = "calendar";
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, RegionMeters> meters;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public StatsCache(
+            MeterRegistry meterRegistry,
+            @Value("${stats.cache.enabled:true}") boolean enabled,
+            @Value("${stats.cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${stats.cache.max-entries:500}") int maxEntries) {
+        this.enabled = enabled;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+        this.meters = List.of(DASHBOARD, SCREENING, CALENDAR).stream()
+            .collect(Collectors.toUnmodifiableMap(region -> region, region -> new RegionMeters(meterRegistry, region)));
+
+        Gauge.builder("stats.cache.size", entries, Map::size)
+            .description("Entries in the stats cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The cached value for (region, key), computing it with loader if it is
+     * missing or expired. Loader exceptions are passed on and not cached.
+     */
+    public <T> T get(String region, Object key, Supplier<T> loader) {
+        return get(region, key, loader, value -> true);
+    }
+
+    /**
+     * Same, but a computed value failing cacheable (e.g. a partial result) is
+     * handed to the requests waiting for it and then dropped
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String region, Object key, Supplier<T> loader, Predicate<? super T> cacheable) {
+        RegionMeters regionMeters = meters.get(region);
+        if (regionMeters == null) {
+            throw new IllegalArgumentException("Unknown stats cache region: " + region);
+        }
+        if (!enabled) {
+            return loader.get();
+        }
+
+        Key cacheKey = new Key(region, key);
+        long now = System.nanoTime();
+        Entry fresh = new Entry();
+        Entry entry = entries.compute(cacheKey, (k, current) -> current != null && !current.isExpired(now) ? current : fresh);
+        if (entry != fresh) {
+            regionMeters.record(entry.value.isDone() ? regionMeters.hit : regionMeters.coalesced);
+            return (T) join(entry);
+        }
+
+        regionMeters.record(regionMeters.miss);
+        evictIfFull();
+        long start = System.nanoTime();
+        try {
+            T value = loader.get();
+            fresh.expiresAt = System.nanoTime() + ttlNanos;
+            fresh.value.complete(value);
+            if (!cacheable.test(value)) {
+                entries.remove(cacheKey, fresh);
+            }
+            return value;
+        } catch (RuntimeException e) {
+            entries.remove(cacheKey, fresh);
+            fresh.value.completeExceptionally(e);
+            throw e;
+        } finally {
+            regionMeters.load.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Drop one entry. A computation still in flight finishes for its waiters
+     * but is not kept.
+     */
+    public void invalidate(String region, Object key) {
+        entries.remove(new Key(region, key));
+    }
+
+    /**
+     * Drop every entry of a region
+     */
+    public void invalidateRegion(String region) {
+        entries.keySet().removeIf(key -> key.region().equals(region));
+    }
+
+    /**
+     * Drop the entries of a region whose key matches
+     */
+    public void invalidateIf(String region, Predicate<Object> keyFilter) {
+        entries.keySet().removeIf(key -> key.region().equals(region) && keyFilter.test(key.key()));
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        while (entries.size() > maxEntries) {
+            Optional<Map.Entry<Key, Entry>> oldest = entries.entrySet().stream()
+                .filter(e -> e.getValue().value.isDone())
+                .min(Comparator.comparingLong(e -> e.getValue().expiresAt));
+            if (oldest.isEmpty()) {
+                break;
+            }
+            entries.remove(oldest.get().getKey(), oldest.get().getValue());
+        }
+    }
+
+    private static Object join(Entry entry) {
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String region, Object key) {
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Object> value = new CompletableFuture<>();
+        // Set once the value is computed; an entry still loading never expires
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        boolean isExpired(long now) {
+            return value.isDone() && now - expiresAt >= 0;
+        }
+    }
+
+    private static final class RegionMeters {
+        final Counter hit;
+        final Counter miss;
+        final Counter coalesced;
+        final Timer load;
+        final LongAdder hits = new LongAdder();
+        final LongAdder requests = new LongAdder();
+
+        RegionMeters(MeterRegistry registry, String region) {
+            this.hit = counter(registry, region, "hit");
+            this.miss = counter(registry, region, "miss");
+            this.coalesced = counter(registry, region, "coalesced");
+            this.load = Timer.builder("stats.cache.load")
+                .description("Time to recompute a stats cache entry")
+                .tag("region", region)
+                .register(registry);
+            Gauge.builder("stats.cache.hit_ratio", this,
+                    m -> m.requests.sum() == 0 ? 0 : (double) m.hits.sum() / m.requests.sum())
+                .description("Share of stats cache requests answered without recomputing")
+                .tag("region", region)
+                .register(registry);
+        }
+
+        void record(Counter result) {
+            result.increment();
+            requests.increment();
+            if (result != miss) {
+                hits.increment();
+            }
+        }
+
+        private static Counter counter(MeterRegistry registry, String region, String result) {
+            return Counter.builder("stats.cache.requests")
+                .description("Stats cache lookups")
+                .tag("region", region)
+                .tag("result", result)
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.magicbus.service.cache;
+
+import com.magicbus.entity.Candidate;
+import com.magicbus.entity.workflow.CandidateWorkflow;
+import com.magicbus.entity.workflow.WorkflowStatus;
+import com.magicbus.event.CandidateCreatedEvent;
+import com.magicbus.event.CandidateRegionChangedEvent;
+import com.magicbus.event.OnboardingStatusChangedEvent;
+import com.magicbus.event.TrainingBatchChangedEvent;
+import com.magicbus.event.WorkflowCreatedEvent;
+import com.magicbus.event.WorkflowStatusChangedEvent;
+import com.magicbus.service.dashboard.DashboardRegion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Drops the stats cache entries a change affects, once its transaction has
+ * committed (immediately if there is none):
+ *
+ * - candidate created / onboarding status changed: the dashboard stats for
+ *   the candidate's created_at year (global, and the candidate's state and
+ *   city), and the all-time dashboard summary
+ * - candidate region changed: the same entries, for both the old and the new
+ *   region
+ * - workflow created / transition: the same dashboard entries for the
+ *   workflow's created_at year, and the screening stats; enrollment also
+ *   changes the batch's occupancy, so the calendar summary too
+ * - training batch changed: the calendar summary
+ */
+@Component
+@RequiredArgsConstructor
+public class StatsCacheInvalidator {
+
+    public static final String SUMMARY_KEY = "summary";
+    public static final String STATS_KEY = "stats";
+
+    private final StatsCache statsCache;
+
+    /**
+     * Dashboard cache key of a region's year stats
+     */
+    public record RegionalKey(int year, DashboardRegion region) {
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CandidateCreatedEvent event) {
+        invalidateDashboard(event.candidate().getCreatedAt(), regionOf(event.candidate()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(OnboardingStatusChangedEvent event) {
+        invalidateDashboard(event.candidate().getCreatedAt(), regionOf(event.candidate()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(CandidateRegionChangedEvent event) {
+        // The global numbers do not change. The candidate's workflow may be
+        // from a later year, so drop every year of the two regions
+        Set<DashboardRegion> affected = new HashSet<>();
+        affected.addAll(DashboardRegion.of(event.previousState(), event.previousCity()).scopes());
+        affected.addAll(regionOf(event.candidate()).scopes());
+        statsCache.invalidateIf(StatsCache.DASHBOARD,
+            key -> key instanceof RegionalKey regional && affected.contains(regional.region()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(WorkflowCreatedEvent event) {
+        invalidateWorkflow(event.workflow());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(WorkflowStatusChangedEvent event) {
+        CandidateWorkflow workflow = event.workflow();
+        if (workflow.getStatus() == event.previousStatus()) {
+            return;
+        }
+        invalidateWorkflow(workflow);
+        if (workflow.getStatus() == WorkflowStatus.ENROLLED || event.previousStatus() == WorkflowStatus.ENROLLED) {
+            statsCache.invalidate(StatsCache.CALENDAR, SUMMARY_KEY);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void on(TrainingBatchChangedEvent event) {
+        statsCache.invalidate(StatsCache.CALENDAR, SUMMARY_KEY);
+    }
+
+    private void invalidateWorkflow(CandidateWorkflow workflow) {
+        invalidateDashboard(workflow.getCreatedAt(), regionOf(workflow.getCandidate()));
+        statsCache.invalidate(StatsCache.SCREENING, STATS_KEY);
+    }
+
+    private void invalidateDashboard(LocalDateTime createdAt, DashboardRegion region) {
+        int year = (createdAt != null ? createdAt : LocalDateTime.now()).getYear();
+        statsCache.invalidate(StatsCache.DASHBOARD, year);
+        statsCache.invalidate(StatsCache.DASHBOARD, SUMMARY_KEY);
+        for (DashboardRegion scope : region.scopes()) {
+            if (!scope.isAll()) {
+                statsCache.invalidate(StatsCache.DASHBOARD, new RegionalKey(year, scope));
+            }
+        }
+    }
+
+    private static DashboardRegion regionOf(Candidate candidate) {
+        return DashboardRegion.of(candidate.getState(), candidate.getCity());
+    }
+}
@@ -0,0 +1,265 @@
+package com.magicbus.service.dashboard;
+
+import com.magicbus.dto.CohortAnalyticsDTO;
+import com.magicbus.dto.CohortAnalyticsDTO.CohortFunnel;
+import com.magicbus.dto.CohortAnalyticsDTO.StageStats;
+import com.magicbus.entity.workflow.CohortStage;
+import com.magicbus.entity.workflow.WorkflowCohortStats;
+import com.magicbus.entity.workflow.WorkflowStatus;
+import com.magicbus.repository.CandidateRepository;
+import com.magicbus.repository.workflow.WorkflowCohortStatsRepository;
+import com.magicbus.util.QuantileSketch;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cohort funnels and stage durations for the candidate workflow.
+ *
+ * A cohort is the candidates who signed up in one month. {@link #refresh()}
+ * makes one pass over candidates and their workflows (keyset pages, so
+ * memory stays at one page plus one sketch per cohort and stage) and stores,
+ * per cohort and CohortStage, how many candidates reached the stage and a
+ * QuantileSketch of how long they took. Reads never touch the workflow
+ * table: the stored sketches of the requested months are merged to answer
+ * p50/p90/p99 for any range. Refreshed nightly by CohortAnalyticsScheduler.
+ *
+ * Metrics: dashboard.cohorts.refresh (timer).
+ */
+@Service
+@Slf4j
+public class CohortAnalyticsService {
+
+    // Stored sketches can only be merged at the same accuracy; changing this needs a refresh
+    private static final double SKETCH_ACCURACY = 0.01;
+    private static final int REFRESH_PAGE_SIZE = 1000;
+    private static final int MAX_MONTHS = 120;
+
+    private final CandidateRepository candidateRepository;
+    private final WorkflowCohortStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer refreshTimer;
+
+    public CohortAnalyticsService(
+            CandidateRepository candidateRepository,
+            WorkflowCohortStatsRepository statsRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.candidateRepository = candidateRepository;
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTimer = Timer.builder("dashboard.cohorts.refresh")
+            .description("workflow_cohort_stats recompute duration")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Recompute every cohort in one pass over candidates and workflows, then
+     * replace workflow_cohort_stats in one transaction
+     */
+    public void refresh() {
+        long start = System.nanoTime();
+        Map<YearMonth, Cohort> cohorts = new TreeMap<>();
+        Long lastId = 0L;
+        List<Object[]> page;
+        do {
+            page = candidateRepository.findCohortInputsAfter(lastId, PageRequest.of(0, REFRESH_PAGE_SIZE));
+            for (Object[] row : page) {
+                lastId = (Long) row[0];
+                accumulate(cohorts, row);
+            }
+        } while (page.size() == REFRESH_PAGE_SIZE);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<WorkflowCohortStats> rows = new ArrayList<>();
+        cohorts.forEach((month, cohort) -> {
+            for (CohortStage stage : CohortStage.values()) {
+                QuantileSketch sketch = cohort.durations.get(stage);
+                rows.add(WorkflowCohortStats.builder()
+                    .cohortYear(month.getYear())
+                    .cohortMonth(month.getMonthValue())
+                    .stage(stage)
+                    .reachedCount(cohort.reached.getOrDefault(stage, 0L))
+                    .durationSketch(sketch != null ? sketch.toBytes() : null)
+                    .updatedAt(now)
+                    .build());
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            statsRepository.deleteAllStats();
+            statsRepository.saveAll(rows);
+        });
+        refreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Recomputed workflow_cohort_stats: {} cohorts", cohorts.size());
+    }
+
+    /**
+     * Backfill on first start: refresh if there are no stats but candidates exist
+     */
+    public boolean refreshIfEmpty() {
+        if (statsRepository.count() > 0 || candidateRepository.count() == 0) {
+            return false;
+        }
+        refresh();
+        return true;
+    }
+
+    /**
+     * Funnels of the signup months from..to (yyyy-MM, inclusive; default the
+     * last 12 months), each with conversion rates and p50/p90/p99 stage
+     * durations, plus the same for all of them together
+     */
+    public CohortAnalyticsDTO getCohortAnalytics(String from, String to) {
+        YearMonth toMonth = to != null ? parseMonth(to) : YearMonth.now();
+        YearMonth fromMonth = from != null ? parseMonth(from) : toMonth.minusMonths(11);
+        if (fromMonth.isAfter(toMonth)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        if (fromMonth.plusMonths(MAX_MONTHS - 1).isBefore(toMonth)) {
+            throw new RuntimeException("At most " + MAX_MONTHS + " months can be requested");
+        }
+
+        Map<YearMonth, Cohort> cohorts = new TreeMap<>();
+        Cohort total = new Cohort();
+        LocalDateTime computedAt = null;
+        for (WorkflowCohortStats row : statsRepository.findCohorts(key(fromMonth), key(toMonth))) {
+            Cohort cohort = cohorts.computeIfAbsent(YearMonth.of(row.getCohortYear(), row.getCohortMonth()), m -> new Cohort());
+            QuantileSketch sketch = row.getDurationSketch() != null ? QuantileSketch.fromBytes(row.getDurationSketch()) : null;
+            cohort.add(row.getStage(), row.getReachedCount(), sketch);
+            total.add(row.getStage(), row.getReachedCount(), sketch);
+            if (computedAt == null || row.getUpdatedAt().isAfter(computedAt)) {
+                computedAt = row.getUpdatedAt();
+            }
+        }
+
+        List<CohortFunnel> funnels = new ArrayList<>();
+        cohorts.forEach((month, cohort) -> funnels.add(toFunnel(month.toString(), cohort)));
+        return CohortAnalyticsDTO.builder()
+            .from(fromMonth.toString())
+            .to(toMonth.toString())
+            .computedAt(computedAt)
+            .cohorts(funnels)
+            .total(toFunnel("total", total))
+            .build();
+    }
+
+    private static void accumulate(Map<YearMonth, Cohort> cohorts, Object[] row) {
+        LocalDateTime signedUpAt = (LocalDateTime) row[1];
+        if (signedUpAt == null) {
+            return;
+        }
+        String onboardingStatus = (String) row[2];
+        LocalDateTime workflowAt = (LocalDateTime) row[3];
+        LocalDateTime screenedAt = (LocalDateTime) row[4];
+        LocalDateTime orientedAt = (LocalDateTime) row[5];
+        LocalDateTime enrolledAt = (LocalDateTime) row[6];
+        WorkflowStatus status = (WorkflowStatus) row[7];
+
+        Cohort cohort = cohorts.computeIfAbsent(YearMonth.from(signedUpAt), m -> new Cohort());
+        cohort.reach(CohortStage.SIGNED_UP, null);
+        if ("COMPLETED".equals(onboardingStatus) || workflowAt != null) {
+            cohort.reach(CohortStage.ONBOARDED, secondsBetween(signedUpAt, workflowAt));
+        }
+        if (screenedAt != null) {
+            cohort.reach(CohortStage.SCREENED, secondsBetween(workflowAt, screenedAt));
+        }
+        if (orientedAt != null) {
+            cohort.reach(CohortStage.ORIENTED, secondsBetween(screenedAt, orientedAt));
+        }
+        if (enrolledAt != null) {
+            cohort.reach(CohortStage.ENROLLED, secondsBetween(orientedAt, enrolledAt));
+        }
+        if (status == WorkflowStatus.DROPPED || status == WorkflowStatus.ON_HOLD) {
+            cohort.reach(CohortStage.DROPPED, null);
+        }
+    }
+
+    private static CohortFunnel toFunnel(String label, Cohort cohort) {
+        long signedUp = cohort.reached.getOrDefault(CohortStage.SIGNED_UP, 0L);
+        List<StageStats> stages = new ArrayList<>();
+        long previous = signedUp;
+        for (CohortStage stage : CohortStage.values()) {
+            long reached = cohort.reached.getOrDefault(stage, 0L);
+            boolean inFunnel = stage != CohortStage.SIGNED_UP && stage != CohortStage.DROPPED;
+            QuantileSketch sketch = cohort.durations.get(stage);
+            boolean timed = sketch != null && sketch.getCount() > 0;
+            stages.add(StageStats.builder()
+                .stage(stage.name())
+                .stageName(stage.getDisplayName())
+                .reached(reached)
+                .conversionFromSignup(stage != CohortStage.SIGNED_UP ? ratio(reached, signedUp) : null)
+                .conversionFromPrevious(inFunnel ? ratio(reached, previous) : null)
+                .durationSamples(timed ? sketch.getCount() : null)
+                .p50Hours(timed ? hours(sketch.quantile(0.5)) : null)
+                .p90Hours(timed ? hours(sketch.quantile(0.9)) : null)
+                .p99Hours(timed ? hours(sketch.quantile(0.99)) : null)
+                .build());
+            if (stage != CohortStage.DROPPED) {
+                previous = reached;
+            }
+        }
+        return CohortFunnel.builder().cohort(label).stages(stages).build();
+    }
+
+    private static Long secondsBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            return null;
+        }
+        return Math.max(0, Duration.between(from, to).getSeconds());
+    }
+
+    private static Double ratio(long part, long whole) {
+        return whole > 0 ? Math.round(part * 10000.0 / whole) / 10000.0 : null;
+    }
+
+    private static double hours(double seconds) {
+        return Math.round(seconds / 36.0) / 100.0;
+    }
+
+    private static int key(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    private static YearMonth parseMonth(String value) {
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid month (expected yyyy-MM): " + value);
+        }
+    }
+
+    // Reach counts and duration sketches of one cohort (or several merged)
+    private static final class Cohort {
+        final Map<CohortStage, Long> reached = new EnumMap<>(CohortStage.class);
+        final Map<CohortStage, QuantileSketch> durations = new EnumMap<>(CohortStage.class);
+
+        void reach(CohortStage stage, Long seconds) {
+            reached.merge(stage, 1L, Long::sum);
+            if (seconds != null) {
+                durations.computeIfAbsent(stage, s -> new QuantileSketch(SKETCH_ACCURACY)).add(seconds);
+            }
+        }
+
+        void add(CohortStage stage, long count, QuantileSketch sketch) {
+            reached.merge(stage, count, Long::sum);
+            if (sketch != null) {
+                durations.computeIfAbsent(stage, s -> new QuantileSketch(SKETCH_ACCURACY)).merge(sketch);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.magicbus.service.dashboard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent aggregate queries of one dashboard response.
+ *
+ * With dashboard.parallel.enabled the queries run concurrently, so the
+ * response takes as long as the slowest query rather than the sum:
+ * - on a shared pool of dashboard.parallel.threads (keep it well below the
+ *   Hikari pool size), each query in its own read-only transaction
+ * - at most dashboard.parallel.per-request of one batch at a time, so a
+ *   single request cannot hold every connection
+ * - the batch gets dashboard.parallel.timeout-millis (each query's
+ *   transaction about a second more, so slow statements are cancelled too);
+ *   a query that times out or fails is answered with its last successful
+ *   value (null if there is none) and reported in {@link Results#failed()}
+ * - last successful values are kept for dashboard.parallel.fallback-max-age-seconds,
+ *   at most dashboard.parallel.fallback-max-entries of them (least recently
+ *   used go first), since batch names carry request parameters such as the year
+ * - if the pool's queue is full, the query is rejected and answered with
+ *   its fallback like a failed one; it never runs on the request thread
+ *
+ * Disabled, the queries run one after another on the caller thread and
+ * failures propagate, as before.
+ *
+ * Metrics: dashboard.query{outcome=success|timeout|error|rejected},
+ * dashboard.query.batch (timer).
+ */
+@Component
+@Slf4j
+public class DashboardQueryRunner {
+
+    private final boolean enabled;
+    private final int perRequest;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    // Last successful value per batch/query - the fallback for a failed query
+    private final Map<String, Fallback> lastGood;
+    private final long fallbackMaxAgeNanos;
+    private final Counter success;
+    private final Counter timeout;
+    private final Counter error;
+    private final Counter rejected;
+    private final Timer batchTimer;
+
+    public DashboardQueryRunner(
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${dashboard.parallel.enabled:true}") boolean enabled,
+            @Value("${dashboard.parallel.threads:4}") int threads,
+            @Value("${dashboard.parallel.per-request:4}") int perRequest,
+            @Value("${dashboard.parallel.timeout-millis:5000}") long timeoutMillis,
+            @Value("${dashboard.parallel.fallback-max-entries:500}") int fallbackMaxEntries,
+            @Value("${dashboard.parallel.fallback-max-age-seconds:3600}") long fallbackMaxAgeSeconds) {
+        this.enabled = enabled;
+        this.lastGood = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Fallback> eldest) {
+                return size() > fallbackMaxEntries;
+            }
+        };
+        this.fallbackMaxAgeNanos = TimeUnit.SECONDS.toNanos(fallbackMaxAgeSeconds);
+        this.perRequest = Math.max(1, perRequest);
+        this.timeoutMillis = timeoutMillis;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Hibernate rounds the time left down to whole seconds, so allow one more
+        // than the batch waits; a 1s transaction timeout would expire at once
+        this.readOnlyTransaction.setTimeout((int) ((timeoutMillis + 999) / 1000) + 1);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 8), r -> {
+                Thread thread = new Thread(r, "dashboard-query-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.success = counter(meterRegistry, "success");
+        this.timeout = counter(meterRegistry, "timeout");
+        this.error = counter(meterRegistry, "error");
+        this.rejected = counter(meterRegistry, "rejected");
+        this.batchTimer = Timer.builder("dashboard.query.batch")
+            .description("Time to run all queries of one dashboard response")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run the named queries of one batch and wait for them up to the timeout.
+     * The batch name keys the fallback values, so it must identify the
+     * dashboard and its parameters (e.g. year)
+     */
+    public Results run(String batch, Map<String, Supplier<?>> queries) {
+        if (!enabled) {
+            Map<String, Object> values = new HashMap<>();
+            queries.forEach((name, query) -> values.put(name, query.get()));
+            return new Results(values, List.of());
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Semaphore permits = new Semaphore(perRequest);
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Supplier<?>> query : queries.entrySet()) {
+                if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                Callable<Object> task = () -> {
+                    try {
+                        return readOnlyTransaction.execute(status -> query.getValue().get());
+                    } finally {
+                        permits.release();
+                    }
+                };
+                try {
+                    futures.put(query.getKey(), executor.submit(task));
+                } catch (RejectedExecutionException e) {
+                    // Pool saturated: fail the query instead of running it here without a deadline
+                    permits.release();
+                    futures.put(query.getKey(), CompletableFuture.failedFuture(e));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        List<String> failed = new ArrayList<>();
+        for (String name : queries.keySet()) {
+            Future<Object> future = futures.get(name);
+            try {
+                if (future == null) {
+                    throw new TimeoutException();
+                }
+                Object value = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                success.increment();
+                values.put(name, value);
+                if (value != null) {
+                    remember(batch + "/" + name, value);
+                }
+                continue;
+            } catch (TimeoutException e) {
+                timeout.increment();
+                log.warn("Dashboard query {}/{} timed out after {} ms", batch, name, timeoutMillis);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    rejected.increment();
+                    log.warn("Dashboard query {}/{} rejected, the query pool is saturated", batch, name);
+                } else {
+                    error.increment();
+                    log.warn("Dashboard query {}/{} failed", batch, name, e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (future != null) {
+                // Not started yet: drop it. Running: its transaction timeout ends it
+                future.cancel(false);
+            }
+            values.put(name, fallback(batch + "/" + name));
+            failed.add(name);
+        }
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Results(values, failed);
+    }
+
+    private void remember(String key, Object value) {
+        synchronized (lastGood) {
+            lastGood.put(key, new Fallback(value, System.nanoTime()));
+        }
+    }
+
+    private Object fallback(String key) {
+        synchronized (lastGood) {
+            Fallback fallback = lastGood.get(key);
+            if (fallback == null) {
+                return null;
+            }
+            if (System.nanoTime() - fallback.storedAt() > fallbackMaxAgeNanos) {
+                lastGood.remove(key);
+                return null;
+            }
+            return fallback.value();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("dashboard.query")
+            .description("Dashboard aggregate queries by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    private record Fallback(Object value, long storedAt) {
+    }
+
+    /**
+     * Query results by name; failed queries hold their fallback value
+     */
+    public record Results(Map<String, Object> values, List<String> failed) {
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String name) {
+            return (T) values.get(name);
+        }
+
+        public boolean isPartial() {
+            return !failed.isEmpty();
+        }
+    }
+}
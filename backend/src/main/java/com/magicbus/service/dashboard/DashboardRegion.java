@@ -0,0 +1,47 @@
+package com.magicbus.service.dashboard;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Region key of the dashboard rollup: a (state, city) pair of trimmed,
+ * lower-cased names, where "*" stands for every state or city.
+ *
+ * Each candidate and workflow is counted in three cells: (*, *) for the
+ * global dashboard, (state, *) and (state, city).
+ */
+public record DashboardRegion(String state, String city) {
+
+    public static final String ANY = "*";
+    public static final DashboardRegion ALL = new DashboardRegion(ANY, ANY);
+
+    /**
+     * Region of a candidate's (free-text) state and city
+     */
+    public static DashboardRegion of(String state, String city) {
+        return new DashboardRegion(key(state), key(city));
+    }
+
+    /**
+     * Whole-state region
+     */
+    public static DashboardRegion ofState(String state) {
+        return new DashboardRegion(key(state), ANY);
+    }
+
+    public boolean isAll() {
+        return ANY.equals(state);
+    }
+
+    /**
+     * The rollup regions a row of this (state, city) region is counted in
+     */
+    public List<DashboardRegion> scopes() {
+        return List.of(ALL, new DashboardRegion(state, ANY), this);
+    }
+
+    // Must match LOWER(TRIM(COALESCE(x, ''))) in the rollup rebuild
+    private static String key(String name) {
+        return name != null ? name.trim().toLowerCase(Locale.ROOT) : "";
+    }
+}
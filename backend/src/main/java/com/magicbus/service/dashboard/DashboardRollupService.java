@@ -0,0 +1,249 @@
+package com.magicbus.service.dashboard;
+
+import com.magicbus.entity.Candidate;
+import com.magicbus.entity.DashboardMonthlyRollup;
+import com.magicbus.entity.workflow.CandidateWorkflow;
+import com.magicbus.entity.workflow.WorkflowStatus;
+import com.magicbus.event.CandidateCreatedEvent;
+import com.magicbus.event.CandidateRegionChangedEvent;
+import com.magicbus.event.OnboardingStatusChangedEvent;
+import com.magicbus.event.WorkflowCreatedEvent;
+import com.magicbus.event.WorkflowStatusChangedEvent;
+import com.magicbus.repository.CandidateRepository;
+import com.magicbus.repository.DashboardMonthlyRollupRepository;
+import com.magicbus.repository.workflow.CandidateWorkflowRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps dashboard_monthly_rollup in step with candidate and candidate_workflow.
+ *
+ * Listens (synchronously, inside the publishing transaction) to candidate
+ * and workflow creation, status change and candidate region change events;
+ * the +1/-1 deltas are collected per transaction and written just before it
+ * commits, one upsert per touched cell (in key order, so concurrent commits
+ * cannot deadlock). A rolled-back transaction therefore leaves the rollup
+ * untouched. Every delta goes to the global, state and city cells of the
+ * candidate's region (a workflow counts in its candidate's region).
+ *
+ * {@link #rebuild()} recounts the whole table from the source tables - run
+ * nightly by DashboardRollupScheduler to repair drift from writes that bypass
+ * the services, and at startup when the table is empty (backfill).
+ *
+ * Metrics: dashboard.rollup.rebuild (timer).
+ */
+@Service
+@Slf4j
+public class DashboardRollupService {
+
+    private static final String UNKNOWN_STATUS = "UNKNOWN";
+
+    private final DashboardMonthlyRollupRepository rollupRepository;
+    private final CandidateRepository candidateRepository;
+    private final CandidateWorkflowRepository workflowRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Timer rebuildTimer;
+
+    public DashboardRollupService(
+            DashboardMonthlyRollupRepository rollupRepository,
+            CandidateRepository candidateRepository,
+            CandidateWorkflowRepository workflowRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${dashboard.rollup.enabled:true}") boolean enabled) {
+        this.rollupRepository = rollupRepository;
+        this.candidateRepository = candidateRepository;
+        this.workflowRepository = workflowRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.rebuildTimer = Timer.builder("dashboard.rollup.rebuild")
+            .description("dashboard_monthly_rollup rebuild duration")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener
+    public void on(CandidateCreatedEvent event) {
+        Candidate candidate = event.candidate();
+        adjust(DashboardMonthlyRollup.ONBOARDING, regionOf(candidate), candidate.getCreatedAt(),
+               candidate.getOnboardingStatus(), 1);
+    }
+
+    @EventListener
+    public void on(OnboardingStatusChangedEvent event) {
+        Candidate candidate = event.candidate();
+        move(DashboardMonthlyRollup.ONBOARDING, regionOf(candidate), candidate.getCreatedAt(),
+             event.previousStatus(), candidate.getOnboardingStatus());
+    }
+
+    @EventListener
+    public void on(CandidateRegionChangedEvent event) {
+        Candidate candidate = event.candidate();
+        DashboardRegion from = DashboardRegion.of(event.previousState(), event.previousCity());
+        DashboardRegion to = regionOf(candidate);
+        if (!enabled || from.equals(to)) {
+            return;
+        }
+        relocate(DashboardMonthlyRollup.ONBOARDING, from, to, candidate.getCreatedAt(), candidate.getOnboardingStatus());
+        workflowRepository.findByCandidateId(candidate.getId()).ifPresent(workflow ->
+            relocate(DashboardMonthlyRollup.WORKFLOW, from, to, workflow.getCreatedAt(), nameOf(workflow.getStatus())));
+    }
+
+    @EventListener
+    public void on(WorkflowCreatedEvent event) {
+        CandidateWorkflow workflow = event.workflow();
+        adjust(DashboardMonthlyRollup.WORKFLOW, regionOf(workflow.getCandidate()), workflow.getCreatedAt(),
+               nameOf(workflow.getStatus()), 1);
+    }
+
+    @EventListener
+    public void on(WorkflowStatusChangedEvent event) {
+        CandidateWorkflow workflow = event.workflow();
+        move(DashboardMonthlyRollup.WORKFLOW, regionOf(workflow.getCandidate()), workflow.getCreatedAt(),
+             nameOf(event.previousStatus()), nameOf(workflow.getStatus()));
+    }
+
+    /**
+     * Recount every cell from candidate and candidate_workflow in one transaction
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        int cells = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            rollupRepository.deleteAllCells();
+            return rollupRepository.rebuildOnboardingCells(now) + rollupRepository.rebuildWorkflowCells(now)
+                + rollupRepository.rebuildStateCells(now) + rollupRepository.rebuildGlobalCells(now);
+        });
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Rebuilt dashboard_monthly_rollup: {} cells", cells);
+    }
+
+    /**
+     * Backfill on first start: rebuild if the rollup is empty but candidates exist
+     */
+    public boolean rebuildIfEmpty() {
+        if (rollupRepository.count() > 0 || candidateRepository.count() == 0) {
+            return false;
+        }
+        rebuild();
+        return true;
+    }
+
+    private void move(String dimension, DashboardRegion region, LocalDateTime createdAt, String from, String to) {
+        if (normalize(from).equals(normalize(to))) {
+            return;
+        }
+        adjust(dimension, region, createdAt, from, -1);
+        adjust(dimension, region, createdAt, to, 1);
+    }
+
+    // The global cell nets out to zero and is skipped on write
+    private void relocate(String dimension, DashboardRegion from, DashboardRegion to, LocalDateTime createdAt,
+                          String status) {
+        adjust(dimension, from, createdAt, status, -1);
+        adjust(dimension, to, createdAt, status, 1);
+    }
+
+    private void adjust(String dimension, DashboardRegion region, LocalDateTime createdAt, String status, long delta) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime bucket = createdAt != null ? createdAt : LocalDateTime.now();
+        Map<CellKey, Long> deltas = TransactionSynchronizationManager.isSynchronizationActive()
+            ? pendingDeltas() : new TreeMap<>(CellKey.ORDER);
+        for (DashboardRegion scope : region.scopes()) {
+            CellKey key = new CellKey(scope.state(), scope.city(), bucket.getYear(), bucket.getMonthValue(),
+                                      dimension, normalize(status));
+            deltas.merge(key, delta, Long::sum);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(s -> write(deltas));
+        }
+    }
+
+    /**
+     * Deltas of the current transaction, created (and flushed before commit) on first use
+     */
+    private Map<CellKey, Long> pendingDeltas() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas pending && pending.owner == this) {
+                return pending.deltas;
+            }
+        }
+        PendingDeltas pending = new PendingDeltas(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending.deltas;
+    }
+
+    private void write(Map<CellKey, Long> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((key, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            if (addToCell(key, delta, now) == 0 && rollupRepository.insertCell(key.state(), key.city(), key.year(),
+                    key.month(), key.dimension(), key.status(), delta, now) == 0) {
+                // Created concurrently between the two statements
+                addToCell(key, delta, now);
+            }
+        });
+    }
+
+    private int addToCell(CellKey key, long delta, LocalDateTime now) {
+        return rollupRepository.addToCell(key.state(), key.city(), key.year(), key.month(), key.dimension(),
+                                          key.status(), delta, now);
+    }
+
+    private static DashboardRegion regionOf(Candidate candidate) {
+        return DashboardRegion.of(candidate.getState(), candidate.getCity());
+    }
+
+    private static String nameOf(WorkflowStatus status) {
+        return status != null ? status.name() : null;
+    }
+
+    private static String normalize(String status) {
+        return status != null ? status : UNKNOWN_STATUS;
+    }
+
+    private record CellKey(String state, String city, int year, int month, String dimension, String status) {
+        static final Comparator<CellKey> ORDER = Comparator.comparing(CellKey::state)
+            .thenComparing(CellKey::city)
+            .thenComparingInt(CellKey::year)
+            .thenComparingInt(CellKey::month)
+            .thenComparing(CellKey::dimension)
+            .thenComparing(CellKey::status);
+    }
+
+    private static final class PendingDeltas implements TransactionSynchronization {
+        final DashboardRollupService owner;
+        final Map<CellKey, Long> deltas = new TreeMap<>(CellKey.ORDER);
+
+        PendingDeltas(DashboardRollupService owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            owner.write(deltas);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.magicbus.service.idempotency;
+
+import com.magicbus.entity.IdempotencyRecord;
+import com.magicbus.repository.IdempotencyRecordRepository;
+import com.magicbus.service.lock.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Idempotency store shared by all nodes through the idempotency_keys table.
+ * Enable with idempotency.store=database.
+ *
+ * A claim is a pending row (no status_code) inserted with ON CONFLICT DO
+ * NOTHING and committed before the handler runs, so of two retries that
+ * reach different nodes only one gets the row; the other sees it pending.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final Duration PURGE_LEASE = Duration.ofMinutes(5);
+    private static final Duration PURGE_MIN_HOLD = Duration.ofMinutes(1);
+
+    private final IdempotencyRecordRepository repository;
+    private final SchedulerLockService lockService;
+
+    @Override
+    @Transactional
+    public Optional<IdempotencyEntry> claim(String key, String requestHash, LocalDateTime pendingUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.claimExpired(key, requestHash, now, pendingUntil) > 0
+                || repository.insertPending(key, requestHash, now, pendingUntil) > 0) {
+            return Optional.empty();
+        }
+        // Held by another request; if it vanished meanwhile (purged), report it as still pending
+        return Optional.of(repository.findById(key)
+            .map(DatabaseIdempotencyStore::toEntry)
+            .orElseGet(() -> new IdempotencyEntry(requestHash, null)));
+    }
+
+    @Override
+    @Transactional
+    public void complete(String key, StoredResponse response) {
+        repository.complete(key, response.status(), response.contentType(), response.body(), response.expiresAt());
+    }
+
+    @Override
+    @Transactional
+    public void release(String key) {
+        repository.deletePending(key);
+    }
+
+    /**
+     * Remove expired keys - runs hourly, on one node at a time
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    @Transactional
+    public void purgeExpired() {
+        lockService.runLocked("idempotency-purge", PURGE_LEASE, PURGE_MIN_HOLD, () -> {
+            int deleted = repository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) {
+                log.info("Purged {} expired idempotency keys", deleted);
+            }
+        });
+    }
+
+    private static IdempotencyEntry toEntry(IdempotencyRecord record) {
+        StoredResponse response = record.getStatusCode() != null
+            ? new StoredResponse(record.getStatusCode(), record.getContentType(), record.getResponseBody(), record.getExpiresAt())
+            : null;
+        return new IdempotencyEntry(record.getRequestHash(), response);
+    }
+}
@@ -0,0 +1,12 @@
+package com.magicbus.service.idempotency;
+
+/**
+ * Current holder of an Idempotency-Key: the hash of the request body it was
+ * claimed for and, once that request finished, its stored response
+ */
+public record IdempotencyEntry(String requestHash, StoredResponse response) {
+
+    public boolean isPending() {
+        return response == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.magicbus.service.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Response cache behind the Idempotency-Key header.
+ *
+ * A request first claims its key; only the caller that gets the claim runs
+ * the handler, then either completes the key with the response or releases
+ * it. The default implementation is a bounded in-memory cache; set
+ * idempotency.store=database to share keys (and claims) between backend nodes.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claim the key for a request with the given body hash. Empty if the
+     * caller now holds the key (new, or the previous entry had expired);
+     * otherwise the entry that holds it. An unfinished claim lapses at
+     * pendingUntil, so a node dying mid-request does not block the key.
+     */
+    Optional<IdempotencyEntry> claim(String key, String requestHash, LocalDateTime pendingUntil);
+
+    /**
+     * Store the response of a claimed key, replayed to retries until it expires
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Drop a claim without storing a response, so the key can be retried
+     */
+    void release(String key);
+}
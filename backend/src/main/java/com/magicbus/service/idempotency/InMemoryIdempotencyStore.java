@@ -0,0 +1,59 @@
+package com.magicbus.service.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of idempotent responses (default, idempotency.store=memory).
+ * Entries also expire after idempotency.ttl-minutes. Claims are per node.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${idempotency.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<IdempotencyEntry> claim(String key, String requestHash, LocalDateTime pendingUntil) {
+        Entry existing = entries.get(key);
+        if (existing != null && !LocalDateTime.now().isAfter(existing.expiresAt())) {
+            return Optional.of(existing.entry());
+        }
+        entries.put(key, new Entry(new IdempotencyEntry(requestHash, null), pendingUntil));
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void complete(String key, StoredResponse response) {
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            entries.put(key, new Entry(new IdempotencyEntry(existing.entry().requestHash(), response), response.expiresAt()));
+        }
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        Entry existing = entries.get(key);
+        if (existing != null && existing.entry().isPending()) {
+            entries.remove(key);
+        }
+    }
+
+    private record Entry(IdempotencyEntry entry, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.magicbus.service.idempotency;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response captured for an Idempotency-Key, replayed verbatim on retries
+ */
+public record StoredResponse(int status, String contentType, String body, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,194 @@
+package com.magicbus.service.lock;
+
+import com.magicbus.entity.SchedulerLock;
+import com.magicbus.repository.SchedulerLockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide lease lock for scheduled jobs, backed by the scheduler_lock
+ * table (plain UPDATE/INSERT, so it works on H2 and PostgreSQL).
+ *
+ * {@link #runLocked} takes the named lease only if it has expired, runs the
+ * task, and renews the lease every third of its length while the task is
+ * still running. On release the lease stays blocked for at least minHold
+ * from the start of the run, so nodes whose trigger fires a little later in
+ * the same tick skip it. Leases of a crashed node simply expire and are
+ * taken over by the next node to try.
+ *
+ * Lease times use each node's clock - keep lease and minHold well above
+ * the expected clock skew between nodes.
+ *
+ * Metrics: scheduler.lock.attempts{job,outcome=acquired|held|error},
+ * scheduler.lock.takeovers{job}, scheduler.lock.renewals{job,outcome=renewed|lost}.
+ */
+@Service
+@Slf4j
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String nodeId;
+    private final ScheduledExecutorService renewer;
+
+    public SchedulerLockService(
+            SchedulerLockRepository lockRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${scheduler.lock.enabled:true}") boolean enabled,
+            @Value("${scheduler.lock.node-id:}") String nodeId) {
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "scheduler-lock-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Scheduler locks {} (node {})", enabled ? "enabled" : "disabled", this.nodeId);
+    }
+
+    /**
+     * Run the task if this node can take the named lease.
+     *
+     * @param name    lock name, one per job
+     * @param lease   how long the lease lasts without renewal
+     * @param minHold minimum time the lease stays taken, measured from the start of the run
+     * @return false if another node holds the lease (or it could not be read)
+     */
+    public boolean runLocked(String name, Duration lease, Duration minHold, Runnable task) {
+        if (!enabled) {
+            task.run();
+            return true;
+        }
+
+        LocalDateTime lockedAt;
+        try {
+            lockedAt = acquire(name, lease);
+        } catch (Exception e) {
+            count("scheduler.lock.attempts", name, "error");
+            log.error("Could not acquire scheduler lock {}", name, e);
+            return false;
+        }
+        if (lockedAt == null) {
+            count("scheduler.lock.attempts", name, "held");
+            log.debug("Scheduler lock {} is held by another node - skipping", name);
+            return false;
+        }
+        count("scheduler.lock.attempts", name, "acquired");
+
+        long period = Math.max(1000, lease.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(
+            () -> renew(name, lease), period, period, TimeUnit.MILLISECONDS);
+        try {
+            task.run();
+        } finally {
+            renewal.cancel(false);
+            release(name, lockedAt.plus(minHold));
+        }
+        return true;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Returns the lease start time, or null if the lease is held elsewhere
+     */
+    private LocalDateTime acquire(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lease);
+        try {
+            return transactionTemplate.execute(status -> {
+                Optional<SchedulerLock> existing = lockRepository.findById(name);
+                if (existing.isEmpty()) {
+                    lockRepository.insertLock(name, nodeId, now, until);
+                    return now;
+                }
+                if (lockRepository.acquireExpired(name, nodeId, now, until) == 0) {
+                    return null;
+                }
+                String previousOwner = existing.get().getLockedBy();
+                if (previousOwner != null && !previousOwner.equals(nodeId)) {
+                    meterRegistry.counter("scheduler.lock.takeovers", "job", name).increment();
+                    log.warn("Took over expired scheduler lock {} from {}", name, previousOwner);
+                }
+                return now;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lock row first
+            return null;
+        }
+    }
+
+    private void renew(String name, Duration lease) {
+        try {
+            Integer renewed = transactionTemplate.execute(status ->
+                lockRepository.renew(name, nodeId, LocalDateTime.now().plus(lease)));
+            if (renewed != null && renewed > 0) {
+                count("scheduler.lock.renewals", name, "renewed");
+            } else {
+                count("scheduler.lock.renewals", name, "lost");
+                log.warn("Scheduler lock {} was lost while the job is still running", name);
+            }
+        } catch (Exception e) {
+            log.error("Could not renew scheduler lock {}", name, e);
+        }
+    }
+
+    private void release(String name, LocalDateTime holdUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = holdUntil.isAfter(now) ? holdUntil : now;
+        try {
+            Integer released = transactionTemplate.execute(status -> lockRepository.release(name, nodeId, until));
+            if (released == null || released == 0) {
+                log.warn("Scheduler lock {} was already taken by another node on release", name);
+            }
+        } catch (Exception e) {
+            // The lease will expire on its own
+            log.error("Could not release scheduler lock {}", name, e);
+        }
+    }
+
+    private void count(String metric, String job, String outcome) {
+        meterRegistry.counter(metric, "job", job, "outcome", outcome).increment();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewer.shutdownNow();
+    }
+}
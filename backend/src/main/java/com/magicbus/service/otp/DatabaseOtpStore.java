@@ -0,0 +1,61 @@
+package com.magicbus.service.otp;
+
+import com.magicbus.entity.OtpVerification;
+import com.magicbus.repository.OtpVerificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * OTP store backed directly by the otp_verification table.
+ * Enable with otp.store=database (e.g. when several nodes share signups).
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseOtpStore implements OtpStore {
+
+    private final OtpVerificationRepository otpVerificationRepository;
+
+    @Override
+    @Transactional
+    public void save(OtpVerification otp) {
+        otpVerificationRepository.findByContactAndIsVerifiedFalse(otp.getContact())
+            .ifPresent(otpVerificationRepository::delete);
+        otpVerificationRepository.save(otp);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OtpVerification> findByContact(String contact) {
+        return otpVerificationRepository.findTopByContactOrderByCreatedAtDesc(contact);
+    }
+
+    /**
+     * A conditional UPDATE, so the row lock serialises concurrent verify calls
+     * (also across nodes). Runs in its own transaction so the attempt survives
+     * the rollback of the failed verification
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryConsumeAttempt(OtpVerification otp) {
+        if (otpVerificationRepository.consumeAttempt(otp.getId()) == 0) {
+            return false;
+        }
+        otp.setAttempts(otp.getAttempts() + 1);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void markVerified(OtpVerification otp) {
+        otp.setIsVerified(true);
+        otp.setVerifiedAt(LocalDateTime.now());
+        otpVerificationRepository.save(otp);
+    }
+}
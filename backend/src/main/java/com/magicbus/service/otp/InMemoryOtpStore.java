@@ -0,0 +1,184 @@
+package com.magicbus.service.otp;
+
+import com.magicbus.entity.OtpVerification;
+import com.magicbus.repository.OtpVerificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory OTP store (default, otp.store=memory).
+ *
+ * Entries are expired by a simple time wheel: each OTP is registered in the
+ * slot covering its expiry time and a scheduled tick clears one slot at a
+ * time, so eviction cost is proportional to the number of expiring codes.
+ *
+ * When otp.store.audit-enabled=true, every issued/verified OTP is also copied
+ * to otp_verification by a background flush (write-behind); requests never
+ * wait on that write.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final long TICK_MILLIS = 15_000;
+    private static final int AUDIT_BATCH_SIZE = 500;
+
+    private final OtpVerificationRepository otpVerificationRepository;
+    private final int maxEntries;
+    private final boolean auditEnabled;
+
+    private final ConcurrentHashMap<String, OtpVerification> otps = new ConcurrentHashMap<>();
+    private final List<Set<String>> wheel;
+    private final AtomicLong currentTick = new AtomicLong();
+    private final BlockingQueue<OtpVerification> auditQueue;
+
+    public InMemoryOtpStore(
+            OtpVerificationRepository otpVerificationRepository,
+            @Value("${otp.store.max-entries:100000}") int maxEntries,
+            @Value("${otp.store.max-ttl-minutes:15}") int maxTtlMinutes,
+            @Value("${otp.store.audit-enabled:false}") boolean auditEnabled,
+            @Value("${otp.store.audit-queue-capacity:10000}") int auditQueueCapacity) {
+        this.otpVerificationRepository = otpVerificationRepository;
+        this.maxEntries = maxEntries;
+        this.auditEnabled = auditEnabled;
+        this.auditQueue = new ArrayBlockingQueue<>(auditQueueCapacity);
+
+        int slots = (int) (Duration.ofMinutes(maxTtlMinutes).toMillis() / TICK_MILLIS) + 2;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Override
+    public void save(OtpVerification otp) {
+        String contact = otp.getContact();
+        if (otps.size() >= maxEntries && !otps.containsKey(contact)) {
+            throw new RuntimeException("OTP service is busy - please try again shortly");
+        }
+        otps.put(contact, otp);
+        wheel.get(slotFor(otp.getExpiresAt())).add(contact);
+        audit(otp);
+    }
+
+    @Override
+    public Optional<OtpVerification> findByContact(String contact) {
+        return Optional.ofNullable(otps.get(contact));
+    }
+
+    @Override
+    public boolean tryConsumeAttempt(OtpVerification otp) {
+        synchronized (otp) {
+            if (otp.getAttempts() >= otp.getMaxAttempts()) {
+                return false;
+            }
+            otp.setAttempts(otp.getAttempts() + 1);
+            return true;
+        }
+    }
+
+    @Override
+    public void markVerified(OtpVerification otp) {
+        synchronized (otp) {
+            otp.setIsVerified(true);
+            otp.setVerifiedAt(LocalDateTime.now());
+        }
+        audit(otp);
+    }
+
+    /**
+     * Advance the wheel by one slot and drop OTPs that have expired.
+     * Codes that are still valid (re-issued, or not yet due) move to a later slot.
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void evictExpired() {
+        Set<String> slot = wheel.get((int) (currentTick.getAndIncrement() % wheel.size()));
+        if (slot.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int evicted = 0;
+        for (String contact : slot) {
+            slot.remove(contact);
+            OtpVerification remaining = otps.computeIfPresent(contact,
+                (key, otp) -> now.isAfter(otp.getExpiresAt()) ? null : otp);
+            if (remaining == null) {
+                evicted++;
+            } else {
+                wheel.get(slotFor(remaining.getExpiresAt())).add(contact);
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} expired OTPs, {} remaining", evicted, otps.size());
+        }
+    }
+
+    /**
+     * Write-behind flush of the audit copy to otp_verification
+     */
+    @Scheduled(fixedDelayString = "${otp.store.audit-flush-millis:2000}")
+    public void flushAudit() {
+        if (!auditEnabled || auditQueue.isEmpty()) {
+            return;
+        }
+        List<OtpVerification> batch = new ArrayList<>(AUDIT_BATCH_SIZE);
+        while (auditQueue.drainTo(batch, AUDIT_BATCH_SIZE) > 0) {
+            try {
+                otpVerificationRepository.saveAll(batch);
+            } catch (Exception e) {
+                log.error("Failed to write {} OTP audit rows", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushAudit();
+    }
+
+    private int slotFor(LocalDateTime expiresAt) {
+        long ticksAhead = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis() / TICK_MILLIS) + 1;
+        ticksAhead = Math.min(ticksAhead, wheel.size() - 2);
+        return (int) ((currentTick.get() + ticksAhead) % wheel.size());
+    }
+
+    private void audit(OtpVerification otp) {
+        if (!auditEnabled) {
+            return;
+        }
+        OtpVerification copy;
+        synchronized (otp) {
+            copy = OtpVerification.builder()
+                .contact(otp.getContact())
+                .contactType(otp.getContactType())
+                .otpCode(otp.getOtpCode())
+                .isVerified(otp.getIsVerified())
+                .attempts(otp.getAttempts())
+                .maxAttempts(otp.getMaxAttempts())
+                .createdAt(otp.getCreatedAt())
+                .expiresAt(otp.getExpiresAt())
+                .verifiedAt(otp.getVerifiedAt())
+                .build();
+        }
+        if (!auditQueue.offer(copy)) {
+            log.warn("OTP audit queue full - dropping audit copy for {}", otp.getContact());
+        }
+    }
+}
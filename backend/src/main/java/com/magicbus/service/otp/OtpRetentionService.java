@@ -0,0 +1,179 @@
+package com.magicbus.service.otp;
+
+import com.magicbus.repository.OtpVerificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retention for otp_verification.
+ *
+ * delete mode (default): expired and verified OTPs older than the grace
+ * period are removed in chunks of otp.retention.chunk-size, each chunk in its
+ * own short transaction, up to otp.retention.max-chunks per run.
+ *
+ * partition mode (PostgreSQL, after V6__Otp_Verification_Partitioning_Optional.sql):
+ * the table is range-partitioned by day on created_at, so the job creates the
+ * upcoming daily partitions and drops whole partitions older than
+ * otp.retention.partition-days instead of deleting rows. Falls back to delete
+ * mode if the table is not partitioned.
+ *
+ * Metrics: otp.retention.rows (rows removed per run), otp.retention.run (timer),
+ * otp.retention.partitions.dropped.
+ */
+@Service
+@Slf4j
+public class OtpRetentionService {
+
+    private static final String PARTITION_PREFIX = "otp_verification_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final OtpVerificationRepository otpVerificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final String mode;
+    private final int graceMinutes;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final int partitionDays;
+    private final int partitionsAhead;
+
+    private final DistributionSummary rowsPerRun;
+    private final Timer runTimer;
+    private final Counter partitionsDropped;
+
+    public OtpRetentionService(
+            OtpVerificationRepository otpVerificationRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${otp.retention.mode:delete}") String mode,
+            @Value("${otp.retention.grace-minutes:60}") int graceMinutes,
+            @Value("${otp.retention.chunk-size:1000}") int chunkSize,
+            @Value("${otp.retention.max-chunks:100}") int maxChunks,
+            @Value("${otp.retention.partition-days:2}") int partitionDays,
+            @Value("${otp.retention.partitions-ahead:3}") int partitionsAhead) {
+        this.otpVerificationRepository = otpVerificationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = mode;
+        this.graceMinutes = graceMinutes;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.partitionDays = partitionDays;
+        this.partitionsAhead = partitionsAhead;
+
+        this.rowsPerRun = DistributionSummary.builder("otp.retention.rows")
+            .description("otp_verification rows removed per retention run")
+            .register(meterRegistry);
+        this.runTimer = Timer.builder("otp.retention.run")
+            .description("otp_verification retention run duration")
+            .register(meterRegistry);
+        this.partitionsDropped = Counter.builder("otp.retention.partitions.dropped")
+            .description("otp_verification daily partitions dropped")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run one retention pass and return the number of rows removed
+     */
+    public int purge() {
+        long start = System.nanoTime();
+        try {
+            int removed = "partition".equalsIgnoreCase(mode) && isPartitioned()
+                ? rotatePartitions()
+                : deleteInChunks();
+            rowsPerRun.record(removed);
+            return removed;
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int deleteInChunks() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(graceMinutes);
+        int removed = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            List<Long> ids = otpVerificationRepository.findPurgeableIds(cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            otpVerificationRepository.deleteAllByIdInBatch(ids);
+            removed += ids.size();
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            log.info("Purged {} expired/verified OTP rows", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Create the next daily partitions and drop the ones past retention.
+     * Returns the approximate number of rows dropped (from table statistics).
+     */
+    private int rotatePartitions() {
+        LocalDate today = LocalDate.now();
+        for (int day = 0; day <= partitionsAhead; day++) {
+            LocalDate from = today.plusDays(day);
+            jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s%s PARTITION OF otp_verification FOR VALUES FROM ('%s') TO ('%s')",
+                PARTITION_PREFIX, from.format(PARTITION_SUFFIX), from, from.plusDays(1)));
+        }
+
+        LocalDate oldestKept = today.minusDays(partitionDays);
+        List<String> partitions = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'otp_verification'", String.class);
+
+        int removed = 0;
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;  // default partition
+            }
+            LocalDate day;
+            try {
+                day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            } catch (Exception e) {
+                continue;
+            }
+            if (day.isBefore(oldestKept)) {
+                Long rows = jdbcTemplate.queryForObject(
+                    "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE relname = ?", Long.class, partition);
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                partitionsDropped.increment();
+                removed += rows != null ? rows.intValue() : 0;
+                log.info("Dropped OTP partition {} (~{} rows)", partition, rows);
+            }
+        }
+        return removed;
+    }
+
+    private boolean isPartitioned() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table t JOIN pg_class c ON c.oid = t.partrelid " +
+                "WHERE c.relname = 'otp_verification'", Integer.class);
+            if (count != null && count > 0) {
+                return true;
+            }
+        } catch (Exception e) {
+            log.debug("Partition catalog not available: {}", e.getMessage());
+        }
+        log.warn("otp.retention.mode=partition but otp_verification is not partitioned - deleting in chunks");
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.magicbus.service.otp;
+
+import com.magicbus.entity.OtpVerification;
+
+import java.util.Optional;
+
+/**
+ * Storage for issued OTP codes used by the signup flow.
+ *
+ * The default implementation keeps codes in memory so that send/verify never
+ * wait on the database; {@link DatabaseOtpStore} keeps the original
+ * otp_verification behaviour for deployments that need it (otp.store=database).
+ */
+public interface OtpStore {
+
+    /**
+     * Store a newly issued OTP, replacing any earlier code for the same contact
+     */
+    void save(OtpVerification otp);
+
+    /**
+     * Latest OTP issued for a contact, verified or not
+     */
+    Optional<OtpVerification> findByContact(String contact);
+
+    /**
+     * Count one verification attempt against this OTP, as a single atomic step.
+     * Returns false, without counting, once maxAttempts have been used - so
+     * concurrent verify calls can never exceed the limit
+     */
+    boolean tryConsumeAttempt(OtpVerification otp);
+
+    /**
+     * Mark the OTP as successfully verified
+     */
+    void markVerified(OtpVerification otp);
+}
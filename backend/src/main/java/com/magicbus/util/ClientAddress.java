@@ -0,0 +1,21 @@
+package com.magicbus.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client address of a request, for rate limiting and auditing.
+ *
+ * Always the container-resolved remote address: X-Forwarded-For is applied
+ * by Tomcat (server.forward-headers-strategy=native) and only when the
+ * direct peer is a trusted proxy (server.tomcat.remoteip.internal-proxies),
+ * so clients cannot pick their own address by sending the header.
+ */
+public final class ClientAddress {
+
+    private ClientAddress() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
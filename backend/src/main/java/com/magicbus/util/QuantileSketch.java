@@ -0,0 +1,127 @@
+package com.magicbus.util;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch for non-negative values (log-bucketed, as in
+ * DDSketch).
+ *
+ * A value v >= 1 goes to bucket ceil(log_gamma(v)) with
+ * gamma = (1 + a) / (1 - a), so any quantile is answered within relative
+ * error a of a value that was actually added; values below 1 are counted
+ * as 0. Merging two sketches of the same accuracy adds their bucket counts,
+ * so the merge of per-month sketches equals the sketch of all months. Size
+ * grows with the value range, not the count: at 1% accuracy, values from 1
+ * second to 10 years fit in under 1000 buckets.
+ *
+ * Not thread-safe.
+ */
+public class QuantileSketch {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value < 0 || Double.isNaN(value)) {
+            throw new IllegalArgumentException("QuantileSketch only takes non-negative values");
+        }
+        if (value < 1) {
+            zeroCount++;
+        } else {
+            buckets.merge((int) Math.ceil(Math.log(value) / logGamma), 1L, Long::sum);
+        }
+        count++;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of different accuracy");
+        }
+        other.buckets.forEach((index, n) -> buckets.merge(index, n, Long::sum));
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Estimate of the q-quantile (0 <= q <= 1); NaN when empty
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("q must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        int index = buckets.lastKey();
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                index = bucket.getKey();
+                break;
+            }
+        }
+        // Value within relative error a of everything in (gamma^(i-1), gamma^i]
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * Layout: version, accuracy, zero count, bucket count, then (index, count) pairs
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 8 + 4 + buckets.size() * (4 + 8));
+        buffer.put(FORMAT_VERSION);
+        buffer.putDouble(relativeAccuracy);
+        buffer.putLong(zeroCount);
+        buffer.putInt(buckets.size());
+        buckets.forEach((index, n) -> {
+            buffer.putInt(index);
+            buffer.putLong(n);
+        });
+        return buffer.array();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown QuantileSketch format: " + version);
+        }
+        QuantileSketch sketch = new QuantileSketch(buffer.getDouble());
+        sketch.zeroCount = buffer.getLong();
+        sketch.count = sketch.zeroCount;
+        int size = buffer.getInt();
+        for (int i = 0; i < size; i++) {
+            int index = buffer.getInt();
+            long n = buffer.getLong();
+            sketch.buckets.put(index, n);
+            sketch.count += n;
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,26 @@
+package com.magicbus.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesce concurrent identical calls of a bean method.
+ *
+ * While a call is in flight, further calls with equal arguments do not run
+ * the method; they wait for the first call and get the same result (or the
+ * same exception). Nothing is kept once the call completes - this is not a
+ * cache. Since callers share one result object it must be treated as
+ * read-only.
+ *
+ * The interceptor runs outside @Transactional, so waiting callers never hold
+ * a database connection. Applied by config.SingleFlightPostProcessor; like
+ * @Transactional it only works for calls through the Spring proxy.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+}
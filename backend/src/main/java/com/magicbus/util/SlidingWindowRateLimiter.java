@@ -0,0 +1,127 @@
+package com.magicbus.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, per-key sliding window rate limiter.
+ *
+ * Each key has its own counter, so one key's requests never count against
+ * another's (no false rejections under load). The state is one long per key:
+ * [window index:32][previous window count:16][current window count:16],
+ * updated with CAS, so a known key costs no allocation or lock. The request
+ * rate is estimated as
+ * previous * (1 - elapsed fraction of current window) + current.
+ *
+ * Keys idle for two windows no longer count; the first request of each
+ * window sweeps them out (keys only go idle when the window changes). At
+ * most maxKeys keys are tracked: a new key that finds the map full of active
+ * keys is rejected, so a flood of distinct keys is shed instead of growing
+ * memory. A key is never allowed more than its limit, apart from small races
+ * between concurrent callers.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final long COUNT_MASK = 0xFFFFL;
+
+    private final int limit;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> keys = new ConcurrentHashMap<>();
+    private final AtomicLong sweptWindow = new AtomicLong();
+
+    /**
+     * @param limit        max requests per key per window
+     * @param windowMillis window length
+     * @param maxKeys      max keys tracked at once (active in the current or previous window)
+     */
+    public SlidingWindowRateLimiter(int limit, long windowMillis, int maxKeys) {
+        if (limit <= 0 || limit >= COUNT_MASK) {
+            throw new IllegalArgumentException("limit must be between 1 and " + (COUNT_MASK - 1));
+        }
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, System.currentTimeMillis());
+    }
+
+    public boolean tryAcquire(String key, long nowMillis) {
+        long window = nowMillis / windowMillis;
+        double elapsed = (double) (nowMillis % windowMillis) / windowMillis;
+
+        long swept = sweptWindow.get();
+        if (swept < window && sweptWindow.compareAndSet(swept, window)) {
+            sweep(window);
+        }
+
+        AtomicLong state = keys.get(key);
+        if (state == null) {
+            if (keys.size() >= maxKeys) {
+                return false;
+            }
+            state = keys.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        while (true) {
+            long current = state.get();
+            long rolled = roll(current, window);
+            if (previous(rolled) * (1.0 - elapsed) + current(rolled) >= limit) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack(window, previous(rolled), current(rolled) + 1))) {
+                return true;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Keys currently tracked
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Drop keys with no requests in the current or previous window - they count zero
+     */
+    private void sweep(long window) {
+        keys.values().removeIf(state -> roll(state.get(), window) == pack(window, 0, 0));
+    }
+
+    /**
+     * Bring a key's state forward to the given window
+     */
+    private static long roll(long state, long window) {
+        long stateWindow = state >>> 32;
+        long currentWindow = window & 0xFFFFFFFFL;
+        if (stateWindow == currentWindow) {
+            return state;
+        }
+        if (stateWindow == ((currentWindow - 1) & 0xFFFFFFFFL)) {
+            return pack(window, current(state), 0);
+        }
+        return pack(window, 0, 0);
+    }
+
+    private static long pack(long window, long previous, long current) {
+        return ((window & 0xFFFFFFFFL) << 32) | (previous << 16) | current;
+    }
+
+    private static long previous(long state) {
+        return (state >>> 16) & COUNT_MASK;
+    }
+
+    private static long current(long state) {
+        return state & COUNT_MASK;
+    }
+}
@@ -0,0 +1,19 @@
+-- ========================================================================
+-- MAGIC BUS - keyset paging for aging notifications
+-- ========================================================================
+-- Stores the severity sort key (RED = 3, AMBER = 2, GREEN = 1) so lists can
+-- be ordered and paged by (severity_rank, days_since_created, id) from an
+-- index instead of a CASE expression. Backfills existing rows. Safe to re-run.
+-- ========================================================================
+
+ALTER TABLE onboarding_aging_notifications ADD COLUMN IF NOT EXISTS severity_rank INTEGER;
+
+UPDATE onboarding_aging_notifications
+SET severity_rank = CASE aging_color WHEN 'RED' THEN 3 WHEN 'AMBER' THEN 2 ELSE 1 END
+WHERE severity_rank IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_aging_notification_page
+    ON onboarding_aging_notifications (is_dismissed, severity_rank, days_since_created, id);
+
+CREATE INDEX IF NOT EXISTS idx_aging_notification_status_page
+    ON onboarding_aging_notifications (is_dismissed, onboarding_status, severity_rank, days_since_created, id);
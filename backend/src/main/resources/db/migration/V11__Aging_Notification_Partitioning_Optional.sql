@@ -0,0 +1,104 @@
+-- ========================================================================
+-- MAGIC BUS - OPTIONAL partitioning for onboarding_aging_notifications
+-- ========================================================================
+-- Only run this together with notifications.retention.mode=partition. The
+-- table is rebuilt as RANGE-partitioned on (is_dismissed, updated_at), so
+-- the partition key moves with the notification's state:
+--   - onboarding_aging_notifications_active holds every active row
+--     (is_dismissed = false, any updated_at). All active-notification
+--     queries filter on is_dismissed = false and only ever read this one
+--     partition, however old the notifications are
+--   - dismissing a notification sets updated_at, and PostgreSQL moves the
+--     row into onboarding_aging_notifications_pYYYYMM, the partition of the
+--     month it was dismissed in. The retention job drops a month once all
+--     of it is older than notifications.retention.dismissed-days - there are
+--     never active rows in it. Partitions cover the copied rows' months plus
+--     2 ahead; the app creates later months itself
+--   - there is no DEFAULT partition: it would rule out DETACH PARTITION
+--     CONCURRENTLY, which the retention job relies on
+--   - created_at is copied unchanged (it is shown to users). Dismissed rows
+--     are copied only if dismissed within the last 30 days - the rest would
+--     be purged anyway
+--   - a unique index on a partitioned table has to include the partition
+--     key, so the V8 "one active notification per (candidate, level)" index
+--     is created on the active partition itself, where it means the same
+-- Requires PostgreSQL 14+. Safe to re-run (no-op once partitioned).
+-- ========================================================================
+
+DO $$
+DECLARE
+    m DATE;
+    last_month DATE := date_trunc('month', CURRENT_DATE)::date + INTERVAL '2 months';
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table t
+               JOIN pg_class c ON c.oid = t.partrelid
+               WHERE c.relname = 'onboarding_aging_notifications') THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE onboarding_aging_notifications RENAME TO onboarding_aging_notifications_old;
+    DROP INDEX IF EXISTS uq_aging_notification_active;
+    DROP INDEX IF EXISTS idx_aging_notification_candidate_level;
+    DROP INDEX IF EXISTS idx_aging_notification_page;
+    DROP INDEX IF EXISTS idx_aging_notification_status_page;
+
+    CREATE TABLE onboarding_aging_notifications (
+        id BIGINT NOT NULL DEFAULT nextval('onboarding_aging_notifications_seq'),
+        candidate_id BIGINT NOT NULL,
+        candidate_name VARCHAR(200) NOT NULL,
+        phone_number VARCHAR(20),
+        onboarding_status VARCHAR(50) NOT NULL,
+        days_since_created INTEGER NOT NULL,
+        aging_level VARCHAR(20) NOT NULL,
+        aging_color VARCHAR(20) NOT NULL,
+        severity_rank INTEGER,
+        message VARCHAR(500),
+        is_read BOOLEAN DEFAULT FALSE,
+        is_dismissed BOOLEAN NOT NULL DEFAULT FALSE,
+        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+        updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+        PRIMARY KEY (id, is_dismissed, updated_at)
+    ) PARTITION BY RANGE (is_dismissed, updated_at);
+
+    CREATE TABLE onboarding_aging_notifications_active PARTITION OF onboarding_aging_notifications
+        FOR VALUES FROM (false, MINVALUE) TO (false, MAXVALUE);
+
+    SELECT LEAST(date_trunc('month', MIN(COALESCE(updated_at, CURRENT_TIMESTAMP)))::date,
+                 date_trunc('month', CURRENT_DATE)::date)
+    INTO m
+    FROM onboarding_aging_notifications_old
+    WHERE is_dismissed = true
+      AND updated_at >= CURRENT_TIMESTAMP - INTERVAL '30 days';
+    m := COALESCE(m, date_trunc('month', CURRENT_DATE)::date);
+
+    WHILE m <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF onboarding_aging_notifications '
+                       'FOR VALUES FROM (true, %L) TO (true, %L)',
+                       'onboarding_aging_notifications_p' || to_char(m, 'YYYYMM'), m,
+                       (m + INTERVAL '1 month')::date);
+        m := (m + INTERVAL '1 month')::date;
+    END LOOP;
+
+    INSERT INTO onboarding_aging_notifications (id, candidate_id, candidate_name, phone_number, onboarding_status,
+                                                days_since_created, aging_level, aging_color, severity_rank, message,
+                                                is_read, is_dismissed, created_at, updated_at)
+    SELECT id, candidate_id, candidate_name, phone_number, onboarding_status,
+           days_since_created, aging_level, aging_color,
+           COALESCE(severity_rank, CASE aging_color WHEN 'RED' THEN 3 WHEN 'AMBER' THEN 2 ELSE 1 END), message,
+           is_read, COALESCE(is_dismissed, false), COALESCE(created_at, CURRENT_TIMESTAMP),
+           COALESCE(updated_at, created_at, CURRENT_TIMESTAMP)
+    FROM onboarding_aging_notifications_old
+    WHERE is_dismissed = false OR is_dismissed IS NULL
+       OR updated_at >= CURRENT_TIMESTAMP - INTERVAL '30 days';
+
+    DROP TABLE onboarding_aging_notifications_old;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_aging_notification_active
+    ON onboarding_aging_notifications_active (candidate_id, aging_level);
+CREATE INDEX IF NOT EXISTS idx_aging_notification_candidate_level
+    ON onboarding_aging_notifications (candidate_id, aging_level, is_dismissed);
+CREATE INDEX IF NOT EXISTS idx_aging_notification_page
+    ON onboarding_aging_notifications (is_dismissed, severity_rank, days_since_created, id);
+CREATE INDEX IF NOT EXISTS idx_aging_notification_status_page
+    ON onboarding_aging_notifications (is_dismissed, onboarding_status, severity_rank, days_since_created, id);
@@ -0,0 +1,36 @@
+-- ========================================================================
+-- MAGIC BUS - Monthly rollup for the dashboard year stats
+-- ========================================================================
+-- One row per (year, month of created_at, dimension, status):
+--   ONBOARDING - candidates by onboarding_status (NULL stored as 'UNKNOWN')
+--   WORKFLOW   - candidate_workflow rows by status
+-- Kept up to date by the application on every change and recounted by the
+-- nightly rebuild job. The backfill below is the same recount; re-running
+-- this script just recounts again.
+-- ========================================================================
+
+CREATE TABLE IF NOT EXISTS dashboard_monthly_rollup (
+    rollup_year INTEGER NOT NULL,
+    rollup_month INTEGER NOT NULL,
+    dimension VARCHAR(20) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    row_count BIGINT NOT NULL,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (rollup_year, rollup_month, dimension, status)
+);
+
+DELETE FROM dashboard_monthly_rollup;
+
+INSERT INTO dashboard_monthly_rollup (rollup_year, rollup_month, dimension, status, row_count, updated_at)
+SELECT EXTRACT(YEAR FROM created_at)::int, EXTRACT(MONTH FROM created_at)::int,
+       'ONBOARDING', COALESCE(onboarding_status, 'UNKNOWN'), COUNT(*), CURRENT_TIMESTAMP
+FROM candidate
+WHERE created_at IS NOT NULL
+GROUP BY 1, 2, 4;
+
+INSERT INTO dashboard_monthly_rollup (rollup_year, rollup_month, dimension, status, row_count, updated_at)
+SELECT EXTRACT(YEAR FROM created_at)::int, EXTRACT(MONTH FROM created_at)::int,
+       'WORKFLOW', status, COUNT(*), CURRENT_TIMESTAMP
+FROM candidate_workflow
+WHERE created_at IS NOT NULL
+GROUP BY 1, 2, 4;
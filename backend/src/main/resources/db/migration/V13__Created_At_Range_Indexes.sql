@@ -0,0 +1,20 @@
+-- ========================================================================
+-- MAGIC BUS - created_at range indexes for dashboard counts
+-- ========================================================================
+-- The dashboard year queries filter on a created_at range
+-- (created_at >= :from AND created_at < :to) and group by status:
+--   (created_at, status)  - range scan over the year, covering the group key
+--   (status, created_at)  - per-status counts and the screening lists
+--                           (WHERE status = ? ORDER BY created_at DESC)
+-- On candidate these replace idx_candidate_created_at and
+-- idx_candidate_onboarding_status, which are prefixes of the new indexes.
+-- Safe to re-run.
+-- ========================================================================
+
+CREATE INDEX IF NOT EXISTS idx_candidate_created_onboarding ON candidate (created_at, onboarding_status);
+CREATE INDEX IF NOT EXISTS idx_candidate_onboarding_created ON candidate (onboarding_status, created_at);
+DROP INDEX IF EXISTS idx_candidate_created_at;
+DROP INDEX IF EXISTS idx_candidate_onboarding_status;
+
+CREATE INDEX IF NOT EXISTS idx_candidate_workflow_created_status ON candidate_workflow (created_at, status);
+CREATE INDEX IF NOT EXISTS idx_candidate_workflow_status_created ON candidate_workflow (status, created_at);
@@ -0,0 +1,47 @@
+-- ========================================================================
+-- MAGIC BUS - Per-region cells in the dashboard monthly rollup
+-- ========================================================================
+-- dashboard_monthly_rollup gets (region_state, region_city) in front of its
+-- key. Every candidate / workflow is counted three times:
+--   ('*', '*')         - global, read by /dashboard/stats
+--   (state, '*')       - the candidate's state
+--   (state, city)      - the candidate's city
+-- where state and city are the candidate's free-text values, trimmed and
+-- lower-cased; a workflow counts in its candidate's region. A regional
+-- dashboard reads the cells of one region, same as the global one.
+-- Existing rows become the global cells; the region cells are recounted
+-- below (the nightly rebuild job does the same). Safe to re-run.
+-- ========================================================================
+
+ALTER TABLE dashboard_monthly_rollup ADD COLUMN IF NOT EXISTS region_state VARCHAR(100) NOT NULL DEFAULT '*';
+ALTER TABLE dashboard_monthly_rollup ADD COLUMN IF NOT EXISTS region_city VARCHAR(100) NOT NULL DEFAULT '*';
+
+ALTER TABLE dashboard_monthly_rollup DROP CONSTRAINT IF EXISTS dashboard_monthly_rollup_pkey;
+ALTER TABLE dashboard_monthly_rollup
+    ADD CONSTRAINT dashboard_monthly_rollup_pkey
+    PRIMARY KEY (region_state, region_city, rollup_year, rollup_month, dimension, status);
+
+DELETE FROM dashboard_monthly_rollup WHERE region_state <> '*';
+
+INSERT INTO dashboard_monthly_rollup (region_state, region_city, rollup_year, rollup_month, dimension, status, row_count, updated_at)
+SELECT LOWER(TRIM(COALESCE(state, ''))), LOWER(TRIM(COALESCE(city, ''))),
+       EXTRACT(YEAR FROM created_at)::int, EXTRACT(MONTH FROM created_at)::int,
+       'ONBOARDING', COALESCE(onboarding_status, 'UNKNOWN'), COUNT(*), CURRENT_TIMESTAMP
+FROM candidate
+WHERE created_at IS NOT NULL
+GROUP BY 1, 2, 3, 4, 6;
+
+INSERT INTO dashboard_monthly_rollup (region_state, region_city, rollup_year, rollup_month, dimension, status, row_count, updated_at)
+SELECT LOWER(TRIM(COALESCE(c.state, ''))), LOWER(TRIM(COALESCE(c.city, ''))),
+       EXTRACT(YEAR FROM w.created_at)::int, EXTRACT(MONTH FROM w.created_at)::int,
+       'WORKFLOW', w.status, COUNT(*), CURRENT_TIMESTAMP
+FROM candidate_workflow w
+JOIN candidate c ON c.id = w.candidate_id
+WHERE w.created_at IS NOT NULL
+GROUP BY 1, 2, 3, 4, 6;
+
+INSERT INTO dashboard_monthly_rollup (region_state, region_city, rollup_year, rollup_month, dimension, status, row_count, updated_at)
+SELECT region_state, '*', rollup_year, rollup_month, dimension, status, SUM(row_count), CURRENT_TIMESTAMP
+FROM dashboard_monthly_rollup
+WHERE region_state <> '*' AND region_city <> '*'
+GROUP BY region_state, rollup_year, rollup_month, dimension, status;
@@ -0,0 +1,20 @@
+-- ========================================================================
+-- MAGIC BUS - Cohort funnel and stage duration stats
+-- ========================================================================
+-- One row per (signup month, funnel stage): how many of the month's
+-- candidates reached the stage and, in duration_sketch, a mergeable
+-- quantile sketch (com.magicbus.util.QuantileSketch) of the seconds they
+-- took to get there from the previous stage. /dashboard/cohorts merges the
+-- rows of the requested months instead of scanning candidate_workflow.
+-- Filled by the application (at startup when empty, then nightly).
+-- ========================================================================
+
+CREATE TABLE IF NOT EXISTS workflow_cohort_stats (
+    cohort_year INTEGER NOT NULL,
+    cohort_month INTEGER NOT NULL,
+    stage VARCHAR(30) NOT NULL,
+    reached_count BIGINT NOT NULL,
+    duration_sketch BYTEA,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (cohort_year, cohort_month, stage)
+);
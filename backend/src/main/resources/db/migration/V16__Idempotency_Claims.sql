@@ -0,0 +1,12 @@
+-- ========================================================================
+-- MAGIC BUS - Idempotency-Key claims and request hashes
+-- ========================================================================
+-- A request now claims its key before running by inserting a row without
+-- a status_code (ON CONFLICT DO NOTHING), and fills the response in when it
+-- finishes; a retry that finds the row pending gets 409, on any node.
+-- request_hash (SHA-256 of the request body) makes a retry that reuses the
+-- key with a different body fail with 422 instead of replaying. Safe to re-run.
+-- ========================================================================
+
+ALTER TABLE idempotency_keys ALTER COLUMN status_code DROP NOT NULL;
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
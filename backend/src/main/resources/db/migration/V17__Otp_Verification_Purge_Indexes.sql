@@ -0,0 +1,16 @@
+-- ========================================================================
+-- MAGIC BUS - otp_verification retention purge indexes
+-- ========================================================================
+-- The purge picks its chunks with
+--   expires_at < :cutoff OR (is_verified AND verified_at < :cutoff) ORDER BY id
+-- Each side of the OR gets its own index, so PostgreSQL can combine them
+-- (BitmapOr) instead of scanning the table:
+--   - expires_at (already created by V1 and V6 on most databases)
+--   - verified_at, partial on verified rows only, so it stays small
+-- Safe to re-run.
+-- ========================================================================
+
+CREATE INDEX IF NOT EXISTS idx_otp_verification_expires ON otp_verification (expires_at);
+
+CREATE INDEX IF NOT EXISTS idx_otp_verification_verified_at
+    ON otp_verification (verified_at) WHERE is_verified;
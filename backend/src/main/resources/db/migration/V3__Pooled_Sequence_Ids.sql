@@ -0,0 +1,69 @@
+-- ========================================================================
+-- MAGIC BUS - Sequence-backed ids for JDBC batching
+-- ========================================================================
+-- Entities now use @SequenceGenerator(<table>_seq, allocationSize = 50)
+-- with the pooled-lo optimizer instead of IDENTITY columns, so Hibernate
+-- can batch inserts. For every table this script:
+--   1. creates <table>_seq (INCREMENT BY 50) if missing
+--   2. moves it past the current MAX(id)
+--   3. drops any IDENTITY property and points the id default at the new
+--      sequence, so raw SQL inserts never collide with Hibernate's ids
+-- Run this in PostgreSQL BEFORE starting the new backend version.
+-- Safe to re-run.
+-- ========================================================================
+
+DO $$
+DECLARE
+    t TEXT;
+    next_id BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'admin_users',
+        'audit_log',
+        'candidate',
+        'candidate_answer',
+        'candidate_languages',
+        'candidate_mentor_mapping',
+        'candidate_onboarding_progress',
+        'candidate_skills',
+        'candidate_workflow',
+        'city',
+        'customers',
+        'dropout_risk',
+        'education_details',
+        'employer',
+        'engagement_event',
+        'interaction_log',
+        'job_opening',
+        'mentor',
+        'menu_groups',
+        'menu_items',
+        'mobilisation_source',
+        'onboarding_aging_notifications',
+        'onboarding_progress',
+        'onboarding_question',
+        'onboarding_step',
+        'otp_verification',
+        'permissions',
+        'personal_details',
+        'placement',
+        'roles',
+        'skill_assessment',
+        'state',
+        'training_batches',
+        'training_master'
+    ] LOOP
+        IF to_regclass(t) IS NULL THEN
+            CONTINUE;
+        END IF;
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_seq');
+
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) + 1 FROM %I', t) INTO next_id;
+        PERFORM setval(t || '_seq', next_id, false);
+
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, t || '_seq');
+    END LOOP;
+END $$;
@@ -0,0 +1,17 @@
+-- ========================================================================
+-- MAGIC BUS - Idempotency-Key response store
+-- ========================================================================
+-- Only needed with idempotency.store=database (multi-node deployments).
+-- Rows are purged hourly once expires_at has passed. Safe to re-run.
+-- ========================================================================
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(512) PRIMARY KEY,
+    status_code INTEGER NOT NULL,
+    content_type VARCHAR(100),
+    response_body TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires ON idempotency_keys(expires_at);
@@ -0,0 +1,13 @@
+-- ========================================================================
+-- MAGIC BUS - otp_verification lookup index
+-- ========================================================================
+-- Covers the OTP lookups (contact + is_verified). Replaces the single-column
+-- contact index, which is a prefix of the new one. It does not serve the
+-- retention purge, which filters on expires_at / verified_at across all
+-- contacts - see V17 for its indexes. Safe to re-run.
+-- ========================================================================
+
+CREATE INDEX IF NOT EXISTS idx_otp_verification_contact_state
+    ON otp_verification (contact, is_verified, expires_at);
+
+DROP INDEX IF EXISTS idx_otp_verification_contact;
@@ -0,0 +1,64 @@
+-- ========================================================================
+-- MAGIC BUS - OPTIONAL daily partitioning for otp_verification
+-- ========================================================================
+-- Only run this together with otp.retention.mode=partition. The table is
+-- rebuilt as RANGE-partitioned by day on created_at, so the retention job
+-- can drop whole old partitions instead of deleting rows.
+--   - partitions are named otp_verification_pYYYYMMDD
+--   - a DEFAULT partition catches rows if the job has not created the day yet
+--   - only rows that are still live (not expired for more than a day) are
+--     copied across; the rest would be purged anyway
+-- Requires PostgreSQL 11+. Safe to re-run (no-op once partitioned).
+-- ========================================================================
+
+DO $$
+DECLARE
+    d DATE;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table t
+               JOIN pg_class c ON c.oid = t.partrelid
+               WHERE c.relname = 'otp_verification') THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE otp_verification RENAME TO otp_verification_old;
+    ALTER TABLE otp_verification_old DROP CONSTRAINT IF EXISTS otpv_check_contact_type;
+    DROP INDEX IF EXISTS idx_otp_verification_contact_state;
+    DROP INDEX IF EXISTS idx_otp_verification_expires;
+
+    CREATE TABLE otp_verification (
+        id BIGINT NOT NULL DEFAULT nextval('otp_verification_seq'),
+        contact VARCHAR(255) NOT NULL,
+        contact_type VARCHAR(20) NOT NULL,
+        otp_code VARCHAR(6) NOT NULL,
+        is_verified BOOLEAN DEFAULT FALSE,
+        attempts INTEGER DEFAULT 0,
+        max_attempts INTEGER DEFAULT 5,
+        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+        expires_at TIMESTAMP NOT NULL,
+        verified_at TIMESTAMP,
+        PRIMARY KEY (id, created_at),
+        CONSTRAINT otpv_check_contact_type CHECK (contact_type IN ('EMAIL', 'PHONE'))
+    ) PARTITION BY RANGE (created_at);
+
+    CREATE TABLE otp_verification_default PARTITION OF otp_verification DEFAULT;
+
+    FOR i IN -2..3 LOOP
+        d := CURRENT_DATE + i;
+        EXECUTE format('CREATE TABLE %I PARTITION OF otp_verification FOR VALUES FROM (%L) TO (%L)',
+                       'otp_verification_p' || to_char(d, 'YYYYMMDD'), d, d + 1);
+    END LOOP;
+
+    INSERT INTO otp_verification (id, contact, contact_type, otp_code, is_verified, attempts,
+                                  max_attempts, created_at, expires_at, verified_at)
+    SELECT id, contact, contact_type, otp_code, is_verified, attempts,
+           max_attempts, COALESCE(created_at, CURRENT_TIMESTAMP), expires_at, verified_at
+    FROM otp_verification_old
+    WHERE expires_at >= CURRENT_TIMESTAMP - INTERVAL '1 day';
+
+    DROP TABLE otp_verification_old;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_otp_verification_contact_state
+    ON otp_verification (contact, is_verified, expires_at);
+CREATE INDEX IF NOT EXISTS idx_otp_verification_expires ON otp_verification (expires_at);
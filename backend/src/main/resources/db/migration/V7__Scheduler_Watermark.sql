@@ -0,0 +1,13 @@
+-- ========================================================================
+-- MAGIC BUS - Watermarks for incremental scheduled jobs
+-- ========================================================================
+-- One row per job (e.g. 'onboarding-aging'): the time up to which the job
+-- has processed its input. Deleting a row makes that job do one full pass
+-- on its next run. Safe to re-run.
+-- ========================================================================
+
+CREATE TABLE IF NOT EXISTS scheduler_watermark (
+    job_name VARCHAR(100) PRIMARY KEY,
+    watermark TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP
+);
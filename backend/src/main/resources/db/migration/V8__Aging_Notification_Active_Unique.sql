@@ -0,0 +1,22 @@
+-- ========================================================================
+-- MAGIC BUS - one active aging notification per candidate and level
+-- ========================================================================
+-- Partial unique index on (candidate_id, aging_level) for rows that are not
+-- dismissed. Lets the set-based aging run (aging.mode=sql) use
+-- INSERT ... ON CONFLICT DO NOTHING, and serves the "active level" lookups
+-- of the other modes. Existing duplicates are dismissed first, keeping the
+-- newest row. PostgreSQL only (partial index). Safe to re-run.
+-- ========================================================================
+
+UPDATE onboarding_aging_notifications n
+SET is_dismissed = true, updated_at = CURRENT_TIMESTAMP
+WHERE n.is_dismissed = false
+  AND EXISTS (SELECT 1 FROM onboarding_aging_notifications m
+              WHERE m.candidate_id = n.candidate_id
+                AND m.aging_level = n.aging_level
+                AND m.is_dismissed = false
+                AND m.id > n.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_aging_notification_active
+    ON onboarding_aging_notifications (candidate_id, aging_level)
+    WHERE is_dismissed = false;
@@ -0,0 +1,14 @@
+-- ========================================================================
+-- MAGIC BUS - Leases for scheduled jobs across nodes
+-- ========================================================================
+-- One row per job, created on first use. A node runs a job only while it
+-- holds the lease (locked_until in the future); locked_by is cleared on
+-- release. Deleting a row is safe. Safe to re-run.
+-- ========================================================================
+
+CREATE TABLE IF NOT EXISTS scheduler_lock (
+    lock_name VARCHAR(100) PRIMARY KEY,
+    locked_by VARCHAR(255),
+    locked_at TIMESTAMP,
+    locked_until TIMESTAMP NOT NULL
+);
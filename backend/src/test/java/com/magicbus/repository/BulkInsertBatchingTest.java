@@ -0,0 +1,122 @@
+package com.magicbus.repository;
+
+import com.magicbus.entity.Candidate;
+import com.magicbus.entity.CandidateAnswer;
+import com.magicbus.entity.OnboardingAgingNotification;
+import com.magicbus.entity.OnboardingQuestion;
+import com.magicbus.support.StatementCounter;
+import com.magicbus.support.TestCandidates;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk inserts of candidates, answers and notifications go out in JDBC
+ * batches of hibernate.jdbc.batch_size rows, with one sequence call per
+ * pooled-lo block of 50 ids, instead of one round trip per row. Logs the
+ * insert throughput of each.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementCounter.class)
+@Slf4j
+class BulkInsertBatchingTest {
+
+    private static final int ROWS = 1000;
+    // batch_size and the allocationSize of every sequence
+    private static final int BATCH = 50;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private CandidateAnswerRepository answerRepository;
+
+    @Autowired
+    private OnboardingQuestionRepository questionRepository;
+
+    @Autowired
+    private OnboardingAgingNotificationRepository notificationRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void candidatesInsertInBatches() {
+        List<Candidate> candidates = IntStream.range(0, ROWS)
+            .mapToObj(i -> TestCandidates.candidate().build())
+            .toList();
+
+        insert("candidate", candidateRepository, candidates);
+    }
+
+    @Test
+    void answersInsertInBatches() {
+        // One answer per (candidate, question): 20 candidates x 50 questions
+        List<Candidate> candidates = candidateRepository.saveAll(IntStream.range(0, 20)
+            .mapToObj(i -> TestCandidates.candidate().build())
+            .toList());
+        List<OnboardingQuestion> questions = questionRepository.saveAll(IntStream.range(0, ROWS / candidates.size())
+            .mapToObj(i -> OnboardingQuestion.builder().questionText("Question " + i).questionType("TEXT").build())
+            .toList());
+        List<CandidateAnswer> answers = candidates.stream()
+            .flatMap(candidate -> questions.stream().map(question -> CandidateAnswer.builder()
+                .candidate(candidate)
+                .question(question)
+                .answerText("Answer to " + question.getQuestionText())
+                .build()))
+            .toList();
+
+        insert("candidate_answer", answerRepository, answers);
+    }
+
+    @Test
+    void notificationsInsertInBatches() {
+        List<OnboardingAgingNotification> notifications = IntStream.range(0, ROWS)
+            .mapToObj(i -> OnboardingAgingNotification.builder()
+                .candidateId((long) i + 1)
+                .candidateName("Candidate " + i)
+                .onboardingStatus("INCOMPLETE")
+                .daysSinceCreated(5)
+                .agingLevel("AMBER")
+                .agingColor("AMBER")
+                .build())
+            .toList();
+
+        insert("onboarding_aging_notifications", notificationRepository, notifications);
+    }
+
+    private <T> void insert(String table, JpaRepository<T, Long> repository, List<T> rows) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        statementCounter.reset();
+        long started = System.nanoTime();
+        transaction.executeWithoutResult(status -> repository.saveAll(rows));
+        long elapsedNanos = System.nanoTime() - started;
+
+        List<StatementCounter.Executed> inserts = statementCounter.matching("insert into " + table + " ");
+        List<StatementCounter.Executed> sequenceCalls = statementCounter.matching("next value for " + table);
+        int batches = (ROWS + BATCH - 1) / BATCH;
+        log.info("Inserted {} {} rows in {} ms ({} rows/s) with {} statements",
+                 ROWS, table, elapsedNanos / 1_000_000, (long) (ROWS * 1e9 / elapsedNanos),
+                 statementCounter.all().size());
+
+        assertThat(inserts).hasSize(batches).allMatch(StatementCounter.Executed::batch);
+        assertThat(statementCounter.batchedRows()).isEqualTo(ROWS);
+        assertThat(sequenceCalls).hasSizeLessThanOrEqualTo(batches + 1);
+        assertThat(statementCounter.all()).hasSize(inserts.size() + sequenceCalls.size());
+    }
+}
@@ -0,0 +1,99 @@
+package com.magicbus.service;
+
+import com.magicbus.dto.DashboardDTO;
+import com.magicbus.entity.Candidate;
+import com.magicbus.entity.workflow.CandidateWorkflow;
+import com.magicbus.entity.workflow.WorkflowStatus;
+import com.magicbus.repository.CandidateRepository;
+import com.magicbus.repository.workflow.CandidateWorkflowRepository;
+import com.magicbus.support.StatementCounter;
+import com.magicbus.support.TestCandidates;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With the rollup table off, getDashboardStats(year) reads the year from two
+ * grouped queries instead of one COUNT per month and status
+ */
+@SpringBootTest(properties = "dashboard.rollup.enabled=false")
+@ActiveProfiles("test")
+@Import(StatementCounter.class)
+class DashboardServiceStatementTest {
+
+    private static final int YEAR = 2019;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private CandidateWorkflowRepository workflowRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Test
+    void yearStatsTakeAtMostThreeStatements() {
+        // March: 2 completed (one enrolled, one pending orientation), 1 incomplete;
+        // November: 1 completed on hold; the year before and after do not count
+        candidate(LocalDateTime.of(YEAR, 3, 5, 10, 0), "COMPLETED", WorkflowStatus.ENROLLED);
+        candidate(LocalDateTime.of(YEAR, 3, 31, 23, 59), "COMPLETED", WorkflowStatus.PENDING_ORIENTATION);
+        candidate(LocalDateTime.of(YEAR, 3, 12, 8, 0), "INCOMPLETE", null);
+        candidate(LocalDateTime.of(YEAR, 11, 1, 0, 0), "COMPLETED", WorkflowStatus.ON_HOLD);
+        candidate(LocalDateTime.of(YEAR - 1, 12, 31, 23, 59), "COMPLETED", WorkflowStatus.ENROLLED);
+        candidate(LocalDateTime.of(YEAR + 1, 1, 1, 0, 0), "INCOMPLETE", null);
+
+        statementCounter.reset();
+        DashboardDTO stats = dashboardService.getDashboardStats(YEAR);
+        List<StatementCounter.Executed> statements = statementCounter.all();
+
+        assertThat(statements).as("%s", statements).hasSizeLessThanOrEqualTo(3);
+        assertThat(stats.getPartial()).isNull();
+        assertThat(stats.getTotalCandidates()).isEqualTo(4);
+        assertThat(stats.getCompletedOnboarding()).isEqualTo(3);
+        assertThat(stats.getIncompleteOnboarding()).isEqualTo(1);
+        assertThat(stats.getEnrolled()).isEqualTo(1);
+        assertThat(stats.getPendingOrientation()).isEqualTo(1);
+        assertThat(stats.getPendingScreening()).isZero();
+        assertThat(stats.getDropped()).isEqualTo(1);
+
+        assertThat(stats.getMonthlyOnboardingData()).hasSize(12);
+        DashboardDTO.MonthlyOnboardingData march = stats.getMonthlyOnboardingData().get(2);
+        assertThat(march.getCompleted()).isEqualTo(2);
+        assertThat(march.getIncomplete()).isEqualTo(1);
+        assertThat(march.getTotal()).isEqualTo(3);
+        assertThat(stats.getMonthlyWorkflowData()).hasSize(12);
+        assertThat(stats.getMonthlyWorkflowData().get(2).getTotal()).isEqualTo(2);
+        assertThat(stats.getMonthlyWorkflowData().get(10).getDropped()).isEqualTo(1);
+        assertThat(stats.getMonthlyWorkflowData().get(0).getTotal()).isZero();
+
+        // Served from the stats cache until a candidate or workflow of the year changes
+        statementCounter.reset();
+        dashboardService.getDashboardStats(YEAR);
+        assertThat(statementCounter.all()).isEmpty();
+    }
+
+    private void candidate(LocalDateTime createdAt, String onboardingStatus, WorkflowStatus workflowStatus) {
+        Candidate candidate = candidateRepository.save(TestCandidates.candidate()
+            .onboardingStatus(onboardingStatus)
+            .createdAt(createdAt)
+            .build());
+        if (workflowStatus != null) {
+            workflowRepository.save(CandidateWorkflow.builder()
+                .candidate(candidate)
+                .status(workflowStatus)
+                .createdAt(createdAt)
+                .build());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.magicbus.service;
+
+import com.magicbus.entity.OnboardingAgingNotification;
+import com.magicbus.repository.CandidateRepository;
+import com.magicbus.repository.OnboardingAgingNotificationRepository;
+import com.magicbus.repository.SchedulerWatermarkRepository;
+import com.magicbus.support.StatementCounter;
+import com.magicbus.support.TestCandidates;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * aging.mode=sql creates the same notifications as the per-candidate loop
+ * (aging.mode=full) in a constant number of statements, and so does the first
+ * aging.mode=incremental run. Logs the time and statement count of the loop
+ * and the set-based run. Runs in its own context, so the loop only sees the
+ * candidates created here.
+ */
+@SpringBootTest(properties = "aging.mode=full")
+@ActiveProfiles("test")
+@Import(StatementCounter.class)
+@Slf4j
+class OnboardingAgingModesTest {
+
+    private static final int CANDIDATES = 1000;
+
+    @Autowired
+    private OnboardingAgingService agingService;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private OnboardingAgingNotificationRepository notificationRepository;
+
+    @Autowired
+    private SchedulerWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @AfterEach
+    void restoreMode() {
+        setMode("full");
+        notificationRepository.deleteAllInBatch();
+        candidateRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void setBasedAgingMatchesTheLoopInConstantStatements() {
+        createCandidates();
+
+        AgingRun loop = run("full");
+        Set<String> loopNotifications = notifications();
+        notificationRepository.deleteAllInBatch();
+
+        AgingRun setBased = run("sql");
+        Set<String> setBasedNotifications = notifications();
+
+        log.info("Aging {} candidates: loop {} ms / {} statements, set-based {} ms / {} statements",
+                 CANDIDATES, loop.millis(), loop.statements(), setBased.millis(), setBased.statements());
+
+        assertThat(loopNotifications).hasSizeGreaterThanOrEqualTo(CANDIDATES);
+        assertThat(setBasedNotifications).isEqualTo(loopNotifications);
+        assertThat(loop.statements()).isGreaterThan(CANDIDATES);
+        // The INSERT ... SELECT and the counter reload after commit
+        assertThat(setBased.statements()).isLessThanOrEqualTo(5);
+        assertThat(statementCounter.matching("insert into onboarding_aging_notifications")).hasSize(1);
+
+        // A second run finds nothing missing
+        run("sql");
+        assertThat(notifications()).isEqualTo(setBasedNotifications);
+    }
+
+    @Test
+    void incrementalAgingMatchesTheLoopButKeepsDismissedNotifications() {
+        createCandidates();
+        // No watermark: the first incremental run evaluates every candidate
+        watermarkRepository.deleteAll();
+
+        run("full");
+        Set<String> loopNotifications = notifications();
+        notificationRepository.deleteAllInBatch();
+
+        run("incremental");
+        assertThat(notifications()).isEqualTo(loopNotifications);
+
+        // Nobody is near a bucket boundary, so the next run evaluates no candidate
+        AgingRun next = run("incremental");
+        assertThat(next.statements()).isLessThanOrEqualTo(5);
+        assertThat(notifications()).isEqualTo(loopNotifications);
+
+        // Dismissed notifications: incremental leaves them, full creates them again
+        List<OnboardingAgingNotification> all = notificationRepository.findAll();
+        all.forEach(n -> n.setIsDismissed(true));
+        notificationRepository.saveAll(all);
+
+        run("incremental");
+        assertThat(notificationRepository.count()).isEqualTo(loopNotifications.size());
+        assertThat(notificationRepository.getCountsByColor()).isEmpty();
+
+        run("full");
+        assertThat(notificationRepository.count()).isEqualTo(2L * loopNotifications.size());
+        assertThat(notifications()).containsAll(loopNotifications);
+    }
+
+    /**
+     * Ages from 0 to 9 days (mid-day, away from the bucket boundaries), a third completed
+     */
+    private void createCandidates() {
+        LocalDateTime now = LocalDateTime.now();
+        candidateRepository.saveAll(IntStream.range(0, CANDIDATES)
+            .mapToObj(i -> TestCandidates.candidate()
+                .createdAt(now.minusDays(i % 10).minusHours(12))
+                .onboardingStatus(i % 3 == 0 ? "COMPLETED" : "INCOMPLETE")
+                .build())
+            .toList());
+        notificationRepository.deleteAllInBatch();
+    }
+
+    private AgingRun run(String mode) {
+        setMode(mode);
+        statementCounter.reset();
+        long started = System.nanoTime();
+        agingService.calculateAndUpdateAging();
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        return new AgingRun(millis, statementCounter.onCurrentThread().size());
+    }
+
+    private void setMode(String mode) {
+        OnboardingAgingService target = AopTestUtils.getTargetObject(agingService);
+        ReflectionTestUtils.setField(target, "agingMode", mode);
+    }
+
+    /**
+     * Every field a notification carries, apart from its id and timestamps
+     */
+    private Set<String> notifications() {
+        List<OnboardingAgingNotification> all = notificationRepository.findAll();
+        return all.stream()
+            .map(n -> String.join("|", String.valueOf(n.getCandidateId()), n.getCandidateName(),
+                String.valueOf(n.getPhoneNumber()), n.getOnboardingStatus(), String.valueOf(n.getDaysSinceCreated()),
+                n.getAgingLevel(), n.getAgingColor(), String.valueOf(n.getSeverityRank()), n.getMessage(),
+                String.valueOf(n.getIsRead()), String.valueOf(n.getIsDismissed())))
+            .collect(Collectors.toSet());
+    }
+
+    private record AgingRun(long millis, int statements) {
+    }
+}
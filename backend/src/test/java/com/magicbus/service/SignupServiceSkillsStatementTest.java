@@ -0,0 +1,129 @@
+package com.magicbus.service;
+
+import com.magicbus.dto.LanguageDto;
+import com.magicbus.dto.SkillDto;
+import com.magicbus.dto.SkillsAndLanguagesDto;
+import com.magicbus.entity.Candidate;
+import com.magicbus.entity.CandidateSkill;
+import com.magicbus.repository.CandidateRepository;
+import com.magicbus.repository.CandidateSkillRepository;
+import com.magicbus.support.StatementCounter;
+import com.magicbus.support.TestCandidates;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * saveSkillsAndLanguages touches only the rows that changed, in bulk
+ * statements, so the statement count does not depend on the number of skills
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementCounter.class)
+class SignupServiceSkillsStatementTest {
+
+    @Autowired
+    private SignupService signupService;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private CandidateSkillRepository candidateSkillRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Long candidateId;
+
+    @BeforeEach
+    void createCandidate() {
+        candidateId = candidateRepository.save(TestCandidates.candidate().build()).getId();
+    }
+
+    @Test
+    void firstSaveOfTwentySkillsInsertsThemInOneBatch() {
+        statementCounter.reset();
+        signupService.saveSkillsAndLanguages(request(skills(0, 20, "BEGINNER"), languages("BASIC")));
+        List<StatementCounter.Executed> statements = statementCounter.onCurrentThread();
+
+        assertThat(statementCounter.matching("insert into candidate_skills"))
+            .singleElement().matches(StatementCounter.Executed::batch);
+        // 4 selects, 3 sequence fetches (one per table, then 50 ids from memory)
+        // and 3 insert batches: skills, languages, progress
+        assertThat(statements).as("%s", statements).hasSize(10);
+        assertThat(skillLevels()).hasSize(20);
+    }
+
+    @Test
+    void twentySkillEditTouchesOnlyChangedRows() {
+        signupService.saveSkillsAndLanguages(request(skills(0, 20, "BEGINNER"), languages("BASIC")));
+
+        // Keep 15 skills (5 of them with a new level), drop 5, add 5
+        List<SkillDto> edited = skills(0, 10, "BEGINNER");
+        edited.addAll(skills(10, 15, "EXPERT"));
+        edited.addAll(skills(20, 25, "INTERMEDIATE"));
+        statementCounter.reset();
+        signupService.saveSkillsAndLanguages(request(edited, languages("BASIC")));
+        List<StatementCounter.Executed> statements = statementCounter.onCurrentThread();
+
+        // Selects of candidate, progress, skills and languages, then one skill
+        // delete, insert batch and update batch, and the progress update; the
+        // new skill ids come from the block fetched by the first save
+        assertThat(statements).as("%s", statements).hasSize(8);
+        assertThat(statementCounter.matching("delete from candidate_skills")).hasSize(1);
+        assertThat(statementCounter.matching("insert into candidate_skills")).hasSize(1);
+        assertThat(statementCounter.matching("update candidate_skills")).hasSize(1);
+        assertThat(statementCounter.matching("candidate_languages"))
+            .as("unchanged languages are only read").hasSize(1);
+
+        Map<String, String> levels = skillLevels();
+        assertThat(levels).hasSize(20)
+            .containsEntry("Skill 0", "BEGINNER")
+            .containsEntry("Skill 12", "EXPERT")
+            .containsEntry("Skill 22", "INTERMEDIATE")
+            .doesNotContainKey("Skill 17");
+    }
+
+    @Test
+    void unchangedEditOnlyReads() {
+        signupService.saveSkillsAndLanguages(request(skills(0, 20, "BEGINNER"), languages("BASIC")));
+
+        statementCounter.reset();
+        signupService.saveSkillsAndLanguages(request(skills(0, 20, "BEGINNER"), languages("BASIC")));
+
+        assertThat(statementCounter.matching("candidate_skills"))
+            .singleElement().matches(e -> e.sql().toLowerCase().startsWith("select"));
+    }
+
+    private SkillsAndLanguagesDto request(List<SkillDto> skills, List<LanguageDto> languages) {
+        return SkillsAndLanguagesDto.builder().candidateId(candidateId).skills(skills).languages(languages).build();
+    }
+
+    private static List<SkillDto> skills(int from, int to, String level) {
+        return IntStream.range(from, to)
+            .mapToObj(i -> SkillDto.builder().skillName("Skill " + i).proficiencyLevel(level).build())
+            .collect(Collectors.toList());
+    }
+
+    private static List<LanguageDto> languages(String level) {
+        return List.of(
+            LanguageDto.builder().languageName("Hindi").proficiencyLevel(level).build(),
+            LanguageDto.builder().languageName("English").proficiencyLevel(level).build());
+    }
+
+    private Map<String, String> skillLevels() {
+        return candidateSkillRepository.findByCandidateId(candidateId).stream()
+            .collect(Collectors.toMap(CandidateSkill::getSkillName, CandidateSkill::getProficiencyLevel));
+    }
+}
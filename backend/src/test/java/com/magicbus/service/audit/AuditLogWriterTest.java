@@ -0,0 +1,150 @@
+package com.magicbus.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magicbus.entity.AuditLog;
+import com.magicbus.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The caller only queues events: recording never waits for the database,
+ * however slow it is. A full queue drops events after the enqueue timeout,
+ * and shutdown writes everything still queued.
+ */
+class AuditLogWriterTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    private final AuditLogRepository repository = mock(AuditLogRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Sizes of the saveAll batches the writer thread issued
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+    // Held closed to simulate a database that does not answer
+    private final CountDownLatch database = new CountDownLatch(1);
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void stop() {
+        database.countDown();
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void recordDoesNotWaitForTheDatabase() throws Exception {
+        writer = start(10_000, 20);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 2_000; i++) {
+            recordUpdate(i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // All 2000 calls returned while the database was stalled
+        assertThat(batches).isEmpty();
+        assertThat(elapsedMillis).as("2000 record() calls took %d ms", elapsedMillis).isLessThan(2_000);
+
+        database.countDown();
+        awaitWritten(2_000);
+        assertThat(batches).allMatch(size -> size <= BATCH_SIZE);
+        assertThat(batches.size()).isLessThanOrEqualTo(2_000 / BATCH_SIZE + 1);
+        assertThat(count("dropped")).isZero();
+    }
+
+    @Test
+    void fullQueueDropsAfterEnqueueTimeout() throws Exception {
+        writer = start(10, 20);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            recordUpdate(i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // The writer holds at most one batch; ten more fit in the queue
+        assertThat(count("dropped")).isGreaterThanOrEqualTo(100 - 10 - BATCH_SIZE);
+        assertThat(elapsedMillis).as("each drop waits about 20 ms").isLessThan(100 * 20 + 2_000);
+
+        database.countDown();
+        awaitWritten(100 - (long) count("dropped"));
+        assertThat(count("written") + count("dropped")).isEqualTo(100);
+    }
+
+    @Test
+    void shutdownWritesQueuedEvents() {
+        writer = start(10_000, 20);
+        for (int i = 0; i < 500; i++) {
+            recordUpdate(i);
+        }
+
+        database.countDown();
+        writer.shutdown();
+        writer = null;
+
+        assertThat(count("written")).isEqualTo(500);
+        assertThat(batches.stream().mapToInt(Integer::intValue).sum()).isEqualTo(500);
+    }
+
+    @Test
+    void unchangedUpdatesAreNotWritten() {
+        writer = start(10_000, 20);
+        writer.record("UPDATE", "candidate", 1L, null, Map.of("city", "Pune"), Map.of("city", "Pune"));
+        writer.record("UPDATE", "candidate", 1L, null, Map.of("city", "Pune"), Map.of("city", "Mumbai"));
+
+        database.countDown();
+        writer.shutdown();
+        writer = null;
+
+        assertThat(count("written")).isEqualTo(1);
+    }
+
+    private AuditLogWriter start(int queueCapacity, long enqueueTimeoutMillis) {
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            database.await();
+            List<AuditLog> logs = invocation.getArgument(0);
+            batches.add(logs.size());
+            return logs;
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        AuditLogWriter auditLogWriter = new AuditLogWriter(repository, transactionManager, new ObjectMapper(),
+            meterRegistry, true, queueCapacity, BATCH_SIZE, 100, enqueueTimeoutMillis);
+        ReflectionTestUtils.setField(auditLogWriter, "entityManager", mock(EntityManager.class));
+        auditLogWriter.start();
+        return auditLogWriter;
+    }
+
+    private void recordUpdate(int i) {
+        writer.record("UPDATE", "candidate", (long) i, null, Map.of("city", "Pune"), Map.of("city", "Mumbai " + i));
+    }
+
+    private void awaitWritten(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count("written") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(count("written")).isEqualTo(expected);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("audit.events").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,20 @@
+package com.magicbus.service.otp;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * otp.store=database: every send and verify reads and writes otp_verification
+ */
+@SpringBootTest(properties = "otp.store=database")
+class DatabaseOtpStoreStatementTest extends OtpStoreStatementTest {
+
+    @Override
+    void assertStatementsPerCall(double send, double verify) {
+        // Lookup of the pending code, then the insert (sequence calls are amortised)
+        assertThat(send).isGreaterThanOrEqualTo(2);
+        // Lookup, then the attempt update
+        assertThat(verify).isGreaterThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,18 @@
+package com.magicbus.service.otp;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * otp.store=memory: send and verify never touch the database
+ */
+@SpringBootTest(properties = "otp.store=memory")
+class InMemoryOtpStoreStatementTest extends OtpStoreStatementTest {
+
+    @Override
+    void assertStatementsPerCall(double send, double verify) {
+        assertThat(send).isZero();
+        assertThat(verify).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package com.magicbus.service.otp;
+
+import com.magicbus.dto.SendOtpRequest;
+import com.magicbus.dto.VerifyOtpRequest;
+import com.magicbus.service.SignupService;
+import com.magicbus.support.StatementCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Send/verify against one OTP store (otp.store is set by the subclass):
+ * statements per call, time per call (logged, to compare the stores) and
+ * the attempt limit under concurrent verify calls.
+ */
+@ActiveProfiles("test")
+@Import(StatementCounter.class)
+@Slf4j
+abstract class OtpStoreStatementTest {
+
+    private static final int ROUNDS = 200;
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Autowired
+    private SignupService signupService;
+
+    @Autowired
+    private OtpStore otpStore;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    /**
+     * Asserts the statements one send and one wrong-code verify took on average
+     */
+    abstract void assertStatementsPerCall(double send, double verify);
+
+    @Test
+    void sendAndVerifyStatementsAndTime() {
+        List<String> contacts = new ArrayList<>();
+        for (int i = 0; i < ROUNDS; i++) {
+            contacts.add(contact());
+        }
+
+        statementCounter.reset();
+        long started = System.nanoTime();
+        contacts.forEach(contact -> signupService.sendOtp(new SendOtpRequest(contact, "EMAIL")));
+        long sendNanos = System.nanoTime() - started;
+        int sendStatements = statementCounter.onCurrentThread().size();
+
+        statementCounter.reset();
+        started = System.nanoTime();
+        for (String contact : contacts) {
+            assertThatThrownBy(() -> signupService.verifyOtp(new VerifyOtpRequest(contact, "9999")))
+                .hasMessage("Invalid OTP code");
+        }
+        long verifyNanos = System.nanoTime() - started;
+        int verifyStatements = statementCounter.onCurrentThread().size();
+
+        log.info("{} over {} contacts: send {} us / {} statements, verify {} us / {} statements per call",
+                 AopUtils.getTargetClass(otpStore).getSimpleName(), ROUNDS,
+                 sendNanos / 1_000 / ROUNDS, (double) sendStatements / ROUNDS,
+                 verifyNanos / 1_000 / ROUNDS, (double) verifyStatements / ROUNDS);
+        assertStatementsPerCall((double) sendStatements / ROUNDS, (double) verifyStatements / ROUNDS);
+    }
+
+    @Test
+    void concurrentWrongCodesStopAtMaxAttempts() throws Exception {
+        String contact = contact();
+        signupService.sendOtp(new SendOtpRequest(contact, "EMAIL"));
+
+        int callers = 4 * MAX_ATTEMPTS;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        signupService.verifyOtp(new VerifyOtpRequest(contact, "9999"));
+                        return "verified";
+                    } catch (RuntimeException e) {
+                        return e.getMessage();
+                    }
+                }));
+            }
+            start.countDown();
+            List<String> outcomes = new ArrayList<>();
+            for (Future<String> result : results) {
+                outcomes.add(result.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(Collections.frequency(outcomes, "Invalid OTP code")).isEqualTo(MAX_ATTEMPTS);
+            assertThat(Collections.frequency(outcomes, "Maximum OTP attempts exceeded"))
+                .isEqualTo(callers - MAX_ATTEMPTS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // The right code is refused too once the attempts are used up
+        assertThatThrownBy(() -> signupService.verifyOtp(new VerifyOtpRequest(contact, "0000")))
+            .hasMessage("Maximum OTP attempts exceeded");
+    }
+
+    private static String contact() {
+        return "otp-" + UUID.randomUUID() + "@example.com";
+    }
+}
@@ -0,0 +1,159 @@
+package com.magicbus.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the JDBC statements the application sends to the database. Each
+ * execute/executeQuery/executeUpdate/executeBatch call is one round trip,
+ * however many rows a batch carries.
+ *
+ * Import it into a test context ({@code @Import(StatementCounter.class)}),
+ * call {@link #reset()} before the code under test and read the executed
+ * statements afterwards.
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    private final List<Executed> executed = new CopyOnWriteArrayList<>();
+    private final AtomicLong batchedRows = new AtomicLong();
+
+    public record Executed(String thread, String sql, boolean batch) {
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    public void reset() {
+        executed.clear();
+        batchedRows.set(0);
+    }
+
+    /**
+     * Statements executed on any thread since the last reset
+     */
+    public List<Executed> all() {
+        return List.copyOf(executed);
+    }
+
+    /**
+     * Statements executed on the calling thread since the last reset
+     */
+    public List<Executed> onCurrentThread() {
+        String thread = Thread.currentThread().getName();
+        return executed.stream().filter(e -> e.thread().equals(thread)).toList();
+    }
+
+    /**
+     * Statements since the last reset whose SQL contains the given fragment (case-insensitive)
+     */
+    public List<Executed> matching(String fragment) {
+        String needle = fragment.toLowerCase();
+        return executed.stream().filter(e -> e.sql() != null && e.sql().toLowerCase().contains(needle)).toList();
+    }
+
+    /**
+     * Rows added to JDBC batches since the last reset
+     */
+    public long batchedRows() {
+        return batchedRows.get();
+    }
+
+    private void record(String sql, boolean batch) {
+        executed.add(new Executed(Thread.currentThread().getName(), sql, batch));
+    }
+
+    private class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(Connection.class, new ConnectionHandler(super.getConnection()));
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            Connection connection = super.getConnection(username, password);
+            return wrap(Connection.class, new ConnectionHandler(connection));
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return wrap(method.getReturnType(), new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private String lastBatchSql;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batchedRows.incrementAndGet();
+                if (args != null && args.length == 1) {
+                    lastBatchSql = (String) args[0];
+                }
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                record(preparedSql != null ? preparedSql : lastBatchSql, true);
+            } else if (name.startsWith("execute")) {
+                record(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql, false);
+            }
+            return invokeTarget(statement, method, args);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.magicbus.support;
+
+import com.magicbus.entity.Candidate;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Candidates with every required column filled and unique contacts
+ */
+public final class TestCandidates {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000_000L);
+
+    private TestCandidates() {
+    }
+
+    public static Candidate.CandidateBuilder candidate() {
+        long n = SEQUENCE.incrementAndGet();
+        return Candidate.builder()
+            .firstName("Test")
+            .lastName("Candidate" + n)
+            .email("candidate" + n + "@example.com")
+            .phoneNumber(String.format("9%09d", n % 1_000_000_000L))
+            .dateOfBirth(LocalDate.of(2004, 1, 1))
+            .addressLine1("1 Test Street")
+            .city("Mumbai")
+            .state("Maharashtra")
+            .pincode("400001")
+            .gender("FEMALE");
+    }
+}
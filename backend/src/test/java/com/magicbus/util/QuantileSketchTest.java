@@ -0,0 +1,119 @@
+package com.magicbus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    private static final double ACCURACY = 0.01;
+    private static final double[] QUANTILES = {0, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 1};
+
+    @Test
+    void quantilesAreWithinRelativeAccuracyOfExactValues() {
+        Random random = new Random(42);
+        double[] values = new double[20_000];
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < values.length; i++) {
+            // Durations from a second to about a year, skewed like real stage times
+            values[i] = Math.exp(random.nextDouble() * Math.log(31_536_000));
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertThat(sketch.getCount()).isEqualTo(values.length);
+        for (double q : QUANTILES) {
+            double exact = values[(int) Math.floor(q * (values.length - 1))];
+            assertThat(sketch.quantile(q)).as("q=%s", q).isCloseTo(exact, within(exact * ACCURACY));
+        }
+    }
+
+    @Test
+    void valuesBelowOneCountAsZero() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        sketch.add(0);
+        sketch.add(0.5);
+        sketch.add(100);
+
+        assertThat(sketch.quantile(0)).isZero();
+        assertThat(sketch.quantile(0.5)).isZero();
+        assertThat(sketch.quantile(1)).isCloseTo(100, within(100 * ACCURACY));
+    }
+
+    @Test
+    void mergeEqualsSketchOfAllValues() {
+        Random random = new Random(7);
+        QuantileSketch all = new QuantileSketch(ACCURACY);
+        QuantileSketch[] months = new QuantileSketch[12];
+        for (int m = 0; m < months.length; m++) {
+            months[m] = new QuantileSketch(ACCURACY);
+            for (int i = 0; i < 500; i++) {
+                double value = random.nextDouble() < 0.05 ? 0 : random.nextDouble() * 86_400 * (m + 1);
+                months[m].add(value);
+                all.add(value);
+            }
+        }
+
+        QuantileSketch merged = new QuantileSketch(ACCURACY);
+        for (QuantileSketch month : months) {
+            merged.merge(month);
+        }
+
+        assertThat(merged.getCount()).isEqualTo(all.getCount());
+        assertThat(merged.toBytes()).isEqualTo(all.toBytes());
+        for (double q : QUANTILES) {
+            assertThat(merged.quantile(q)).as("q=%s", q).isEqualTo(all.quantile(q));
+        }
+    }
+
+    @Test
+    void serializationRoundTripKeepsCountsAndQuantiles() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        sketch.add(0);
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i * 37.5);
+        }
+
+        QuantileSketch copy = QuantileSketch.fromBytes(sketch.toBytes());
+
+        assertThat(copy.getCount()).isEqualTo(sketch.getCount());
+        assertThat(copy.toBytes()).isEqualTo(sketch.toBytes());
+        for (double q : QUANTILES) {
+            assertThat(copy.quantile(q)).as("q=%s", q).isEqualTo(sketch.quantile(q));
+        }
+        // A deserialized sketch still merges with live ones of the same accuracy
+        copy.merge(sketch);
+        assertThat(copy.getCount()).isEqualTo(2 * sketch.getCount());
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        QuantileSketch empty = QuantileSketch.fromBytes(new QuantileSketch(ACCURACY).toBytes());
+
+        assertThat(empty.getCount()).isZero();
+        assertThat(empty.quantile(0.5)).isNaN();
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+
+        assertThatThrownBy(() -> new QuantileSketch(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new QuantileSketch(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sketch.add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sketch.add(Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sketch.quantile(1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sketch.merge(new QuantileSketch(0.02)))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        byte[] unknownVersion = sketch.toBytes();
+        unknownVersion[0] = 99;
+        assertThatThrownBy(() -> QuantileSketch.fromBytes(unknownVersion))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
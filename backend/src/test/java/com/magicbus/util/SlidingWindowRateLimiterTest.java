@@ -0,0 +1,114 @@
+package com.magicbus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingWindowRateLimiterTest {
+
+    private static final long WINDOW = 60_000;
+    private static final long START = 1_700_000_040_000L - 1_700_000_040_000L % WINDOW;
+
+    @Test
+    void limitHoldsWithinAWindowAndSlidesIntoTheNext() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, WINDOW, 1000);
+
+        assertThat(acquired(limiter, "a", START, 5)).isEqualTo(3);
+        assertThat(acquired(limiter, "a", START + WINDOW - 1, 1)).isZero();
+        // Start of the next window: the previous window still counts in full
+        assertThat(acquired(limiter, "a", START + WINDOW, 1)).isZero();
+        // Halfway through it counts 1.5 of its 3 requests, leaving room for 2
+        assertThat(acquired(limiter, "a", START + WINDOW + WINDOW / 2, 5)).isEqualTo(2);
+        // At the end of the window after, those 2 count for almost nothing
+        assertThat(acquired(limiter, "a", START + 3 * WINDOW - 1, 5)).isEqualTo(3);
+        // Idle for two whole windows: a fresh limit
+        assertThat(acquired(limiter, "a", START + 6 * WINDOW + WINDOW / 2, 5)).isEqualTo(3);
+    }
+
+    @Test
+    void keysDoNotAffectEachOther() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, WINDOW, 1000);
+
+        assertThat(acquired(limiter, "a", START, 5)).isEqualTo(3);
+        assertThat(acquired(limiter, "b", START, 5)).isEqualTo(3);
+        assertThat(acquired(limiter, "a", START + 1, 1)).isZero();
+    }
+
+    @Test
+    void noFalseRejectionsAtTwentyThousandContactsPerMinute() {
+        // 10 minutes of 20k new contacts a minute, each sending up to the limit
+        // spread over two minutes; then one abusive contact
+        int limit = 3;
+        int perMinute = 20_000;
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(limit, WINDOW, 100_000);
+        Random random = new Random(42);
+
+        List<long[]> requests = new ArrayList<>();
+        for (int minute = 0; minute < 10; minute++) {
+            for (int i = 0; i < perMinute; i++) {
+                long contact = (long) minute * perMinute + i;
+                long first = START + minute * WINDOW + random.nextInt((int) WINDOW);
+                int sends = 1 + random.nextInt(limit);
+                for (int s = 0; s < sends; s++) {
+                    requests.add(new long[] {first + (long) s * WINDOW * 2 / limit, contact});
+                }
+            }
+        }
+        Collections.shuffle(requests, random);
+        requests.sort((x, y) -> Long.compare(x[0], y[0]));
+
+        int rejected = 0;
+        for (long[] request : requests) {
+            if (!limiter.tryAcquire("contact-" + request[1] + "@example.com", request[0])) {
+                rejected++;
+            }
+        }
+        // Only contacts active in the last two windows are kept
+        assertThat(limiter.size()).isLessThanOrEqualTo(3 * perMinute);
+
+        assertThat((double) rejected / requests.size()).as("false rejection rate").isZero();
+        assertThat(acquired(limiter, "abuser@example.com", START + 20 * WINDOW, 100)).isEqualTo(limit);
+    }
+
+    @Test
+    void newKeysAreRejectedOnlyWhileTheMapIsFullOfActiveKeys() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, WINDOW, 10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("key-" + i, START)).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire("key-new", START + 1)).isFalse();
+        assertThat(limiter.tryAcquire("key-0", START + 1)).isTrue();
+        // Still active in the previous window
+        assertThat(limiter.tryAcquire("key-new", START + WINDOW)).isFalse();
+        // Idle for two windows: swept, there is room again
+        assertThat(limiter.tryAcquire("key-new", START + 2 * WINDOW)).isTrue();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new SlidingWindowRateLimiter(0, WINDOW, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SlidingWindowRateLimiter(65_535, WINDOW, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SlidingWindowRateLimiter(3, WINDOW, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int acquired(SlidingWindowRateLimiter limiter, String key, long now, int attempts) {
+        int acquired = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limiter.tryAcquire(key, now)) {
+                acquired++;
+            }
+        }
+        return acquired;
+    }
+}
@@ -42,8 +42,11 @@ export default function Layout() {
     setSidebarOpen(!isMobile)
   }, [isMobile])
 
-  // Fetch unread notification count
+  // Unread notification count, pushed over Server-Sent Events.
+  // Falls back to polling every 30 seconds while the stream is unavailable.
   useEffect(() => {
+    let interval: ReturnType<typeof setInterval> | undefined
+
     const fetchUnreadCount = async () => {
       try {
         const count = await notificationApi.getUnreadCount()
@@ -53,10 +56,33 @@ export default function Layout() {
       }
     }
 
-    fetchUnreadCount()
-    // Refresh every 30 seconds
-    const interval = setInterval(fetchUnreadCount, 30000)
-    return () => clearInterval(interval)
+    const startPolling = () => {
+      if (!interval) {
+        fetchUnreadCount()
+        interval = setInterval(fetchUnreadCount, 30000)
+      }
+    }
+
+    const stopPolling = () => {
+      if (interval) {
+        clearInterval(interval)
+        interval = undefined
+      }
+    }
+
+    if (typeof EventSource === 'undefined') {
+      startPolling()
+      return stopPolling
+    }
+
+    const closeStream = notificationApi.subscribe((summary) => {
+      setUnreadCount(summary.unreadCount)
+      stopPolling()
+    }, startPolling)
+    return () => {
+      closeStream()
+      stopPolling()
+    }
   }, [])
 
   const handleToggleSidebar = () => {
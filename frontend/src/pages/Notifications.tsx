@@ -40,16 +40,19 @@ export default function Notifications() {
   const [error, setError] = useState('')
   const [activeTab, setActiveTab] = useState(0)
   const [filterColor, setFilterColor] = useState<string | null>(null)
+  const [nextCursor, setNextCursor] = useState<string | null>(null)
+  const [loadingMore, setLoadingMore] = useState(false)
 
   const fetchNotifications = async () => {
     setLoading(true)
     setError('')
     try {
-      const [notifs, sum] = await Promise.all([
+      const [page, sum] = await Promise.all([
         filterColor ? notificationApi.getByColor(filterColor) : notificationApi.getAll(),
         notificationApi.getSummary(),
       ])
-      setNotifications(notifs)
+      setNotifications(page.items)
+      setNextCursor(page.nextCursor)
       setSummary(sum)
     } catch (err) {
       console.error('Error fetching notifications:', err)
@@ -63,6 +66,22 @@ export default function Notifications() {
     fetchNotifications()
   }, [filterColor])
 
+  const handleLoadMore = async () => {
+    if (!nextCursor) return
+    setLoadingMore(true)
+    try {
+      const page = filterColor
+        ? await notificationApi.getByColor(filterColor, nextCursor)
+        : await notificationApi.getAll(nextCursor)
+      setNotifications((current) => [...current, ...page.items])
+      setNextCursor(page.nextCursor)
+    } catch (err) {
+      console.error('Error loading more notifications:', err)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleMarkAllRead = async () => {
     try {
       await notificationApi.markAllAsRead()
@@ -81,6 +100,16 @@ export default function Notifications() {
     }
   }
 
+  const handleDismissAllInTab = async () => {
+    if (!filterColor) return
+    try {
+      await notificationApi.bulkDismiss({ color: filterColor })
+      fetchNotifications()
+    } catch (err) {
+      console.error('Error dismissing notifications:', err)
+    }
+  }
+
   const handleTriggerCalculation = async () => {
     setLoading(true)
     try {
@@ -256,6 +285,14 @@ export default function Notifications() {
         </Tabs>
       </Paper>
 
+      {filterColor && notifications.length > 0 && (
+        <Box sx={{ display: 'flex', justifyContent: 'flex-end', mb: 2 }}>
+          <Button variant="outlined" color="error" startIcon={<DeleteIcon />} onClick={handleDismissAllInTab}>
+            Dismiss all {filterColor}
+          </Button>
+        </Box>
+      )}
+
       {/* Notifications Table */}
       <TableContainer component={Paper}>
         <Table>
@@ -335,6 +372,14 @@ export default function Notifications() {
         </Table>
       </TableContainer>
 
+      {nextCursor && (
+        <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+          <Button variant="outlined" onClick={handleLoadMore} disabled={loadingMore}>
+            {loadingMore ? <CircularProgress size={20} /> : 'Load more'}
+          </Button>
+        </Box>
+      )}
+
       {/* Legend */}
       <Paper sx={{ p: 2, mt: 2 }}>
         <Typography variant="subtitle2" gutterBottom>
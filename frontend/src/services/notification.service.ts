@@ -16,6 +16,22 @@ export interface OnboardingAgingNotification {
   createdAt: string
 }
 
+// One keyset page; pass nextCursor back to get the next page (null on the last page)
+export interface NotificationPage {
+  items: OnboardingAgingNotification[]
+  nextCursor: string | null
+}
+
+// Selection for bulk dismiss / mark-read: ids, or any mix of the filters
+export interface BulkNotificationSelection {
+  ids?: number[]
+  candidateId?: number
+  color?: string
+  status?: string
+  minDays?: number
+  maxDays?: number
+}
+
 export interface NotificationSummary {
   byColor: Record<string, number>
   byStatus: Record<string, number>
@@ -26,9 +42,9 @@ export interface NotificationSummary {
 // ================== API Functions ==================
 
 export const notificationApi = {
-  // Get all active notifications
-  getAll: async (): Promise<OnboardingAgingNotification[]> => {
-    const response = await apiClient.get('/notifications')
+  // Get active notifications, a page at a time
+  getAll: async (cursor?: string): Promise<NotificationPage> => {
+    const response = await apiClient.get('/notifications', { params: { cursor } })
     return response.data
   },
 
@@ -38,15 +54,26 @@ export const notificationApi = {
     return response.data.count
   },
 
+  // Live summary counts pushed by the server (Server-Sent Events).
+  // Returns a function that closes the stream.
+  subscribe: (onCounts: (summary: NotificationSummary) => void, onError?: () => void): (() => void) => {
+    const source = new EventSource(`${apiClient.defaults.baseURL}/notifications/stream`)
+    source.addEventListener('counts', (event) => {
+      onCounts(JSON.parse((event as MessageEvent).data))
+    })
+    source.onerror = () => onError?.()
+    return () => source.close()
+  },
+
   // Get notifications by color filter
-  getByColor: async (color: string): Promise<OnboardingAgingNotification[]> => {
-    const response = await apiClient.get(`/notifications/by-color/${color}`)
+  getByColor: async (color: string, cursor?: string): Promise<NotificationPage> => {
+    const response = await apiClient.get(`/notifications/by-color/${color}`, { params: { cursor } })
     return response.data
   },
 
   // Get notifications by onboarding status
-  getByStatus: async (status: string): Promise<OnboardingAgingNotification[]> => {
-    const response = await apiClient.get(`/notifications/by-status/${status}`)
+  getByStatus: async (status: string, cursor?: string): Promise<NotificationPage> => {
+    const response = await apiClient.get(`/notifications/by-status/${status}`, { params: { cursor } })
     return response.data
   },
 
@@ -66,6 +93,18 @@ export const notificationApi = {
     await apiClient.put(`/notifications/${id}/dismiss`)
   },
 
+  // Dismiss many notifications at once; returns how many were dismissed
+  bulkDismiss: async (selection: BulkNotificationSelection): Promise<number> => {
+    const response = await apiClient.put('/notifications/bulk/dismiss', selection)
+    return response.data.updated
+  },
+
+  // Mark many notifications as read at once; returns how many changed
+  bulkMarkRead: async (selection: BulkNotificationSelection): Promise<number> => {
+    const response = await apiClient.put('/notifications/bulk/mark-read', selection)
+    return response.data.updated
+  },
+
   // Manually trigger calculation (for testing)
   triggerCalculation: async (): Promise<void> => {
     await apiClient.post('/notifications/calculate')